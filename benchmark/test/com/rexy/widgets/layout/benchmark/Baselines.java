@@ -0,0 +1,119 @@
+package com.rexy.widgets.layout.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * baselines of benchmark results kept in a properties file,key is {@link TreeSpec#key()}.phase.ns|bytes.
+ * results beyond baseline*(1+tolerance) are regressions,in record mode results are written back as new baselines.
+ *
+ * @author: rexy
+ */
+public class Baselines {
+    /**
+     * allocation below this is ignored as noise of the harness itself.
+     */
+    private static final long BYTES_SLACK = 1024;
+
+    private final File mFile;
+    private final float mTolerance;
+    private final boolean mRecord;
+    private final Properties mBaselines = new Properties();
+
+    private static Baselines sInstance;
+
+    /**
+     * shared by all benchmark tests in the same jvm,configured by system properties set in build.gradle.
+     */
+    public static synchronized Baselines get() throws IOException {
+        if (sInstance == null) {
+            String path = System.getProperty("benchmark.baselines", "baselines.properties");
+            float tolerance = Float.parseFloat(System.getProperty("benchmark.tolerance", "0.3"));
+            boolean record = Boolean.parseBoolean(System.getProperty("benchmark.record", "false"));
+            sInstance = new Baselines(new File(path), tolerance, record);
+        }
+        return sInstance;
+    }
+
+    public Baselines(File file, float tolerance, boolean record) throws IOException {
+        mFile = file;
+        mTolerance = tolerance;
+        mRecord = record;
+        if (file.exists()) {
+            InputStream in = new FileInputStream(file);
+            try {
+                mBaselines.load(in);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    public boolean isRecord() {
+        return mRecord;
+    }
+
+    /**
+     * compare result with its baselines,or record it as new baselines in record mode.
+     *
+     * @return regression messages,empty if none.
+     */
+    public synchronized List<String> check(TreeSpec spec, LayoutBenchmark.Result result) throws IOException {
+        List<String> regressions = new ArrayList<String>(2);
+        for (int phase = 0; phase < LayoutBenchmark.PHASE_COUNT; phase++) {
+            String prefix = spec.key() + "." + LayoutBenchmark.PHASE_NAMES[phase];
+            if (mRecord) {
+                mBaselines.setProperty(prefix + ".ns", String.valueOf(result.nanos[phase]));
+                if (result.bytes[phase] >= 0) {
+                    mBaselines.setProperty(prefix + ".bytes", String.valueOf(result.bytes[phase]));
+                }
+            } else {
+                checkValue(prefix + ".ns", result.nanos[phase], 0, false, regressions);
+                if (result.bytes[phase] >= 0) {
+                    checkValue(prefix + ".bytes", result.bytes[phase], BYTES_SLACK, true, regressions);
+                }
+            }
+        }
+        if (mRecord) {
+            save(mFile, mBaselines, "benchmark baselines,see build.gradle of benchmark module");
+        }
+        return regressions;
+    }
+
+    /**
+     * @param required true if a missing baseline is a failure too,otherwise the value is reported only.
+     */
+    private void checkValue(String key, long value, long slack, boolean required, List<String> regressions) {
+        String baseline = mBaselines.getProperty(key);
+        if (baseline == null) {
+            if (required) {
+                regressions.add(key + "=" + value + " has no baseline in " + mFile);
+            }
+        } else {
+            long limit = (long) (Long.parseLong(baseline.trim()) * (1 + mTolerance)) + slack;
+            if (value > limit) {
+                regressions.add(key + "=" + value + " exceeds baseline " + baseline + " (limit " + limit + ")");
+            }
+        }
+    }
+
+    static void save(File file, Properties properties, String comment) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        OutputStream out = new FileOutputStream(file);
+        try {
+            properties.store(out, comment);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.rexy.widgets.layout.benchmark;
+
+import com.rexy.widgets.layout.BaseViewGroup;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * measure,layout and draw benchmark of every container with trees of benchmark.sizes children in benchmark.depths levels.
+ * results are printed and written to benchmark.output/results.properties,a regression against baselines fails the test.
+ *
+ * @author: rexy
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23)
+public class ContainerBenchmarkTest {
+    private static final int ROOT_WIDTH = 1080;
+    private static final int ROOT_HEIGHT = 1920;
+    private static final int MARGIN = 4;
+    private static final int DIVIDER = 2;
+
+    private static final Properties sResults = new Properties();
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0}")
+    public static Collection<Object[]> parameters() {
+        int[] sizes = parseInts(System.getProperty("benchmark.sizes", "10,100,1000,10000"));
+        int[] depths = parseInts(System.getProperty("benchmark.depths", "1,3"));
+        List<Object[]> specs = new ArrayList<Object[]>();
+        for (String container : TreeSpec.CONTAINERS) {
+            for (int size : sizes) {
+                for (int depth : depths) {
+                    if (depth == 1 || size >= 100) {
+                        specs.add(new Object[]{new TreeSpec(container, size, depth, MARGIN, DIVIDER)});
+                    }
+                }
+            }
+        }
+        return specs;
+    }
+
+    private static int[] parseInts(String value) {
+        String[] items = value.split(",");
+        int[] result = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            result[i] = Integer.parseInt(items[i].trim());
+        }
+        return result;
+    }
+
+    private final TreeSpec mSpec;
+
+    public ContainerBenchmarkTest(TreeSpec spec) {
+        mSpec = spec;
+    }
+
+    @Test
+    public void benchmark() throws IOException {
+        BaseViewGroup root = new TreeFactory(RuntimeEnvironment.application).build(mSpec);
+        int iterations = LayoutBenchmark.iterationsFor(mSpec.childCount);
+        LayoutBenchmark.Result result = new LayoutBenchmark(ROOT_WIDTH, ROOT_HEIGHT).run(root, iterations / 2 + 3, iterations);
+        System.out.println(mSpec + " " + result);
+        synchronized (sResults) {
+            for (int phase = 0; phase < LayoutBenchmark.PHASE_COUNT; phase++) {
+                String prefix = mSpec.key() + "." + LayoutBenchmark.PHASE_NAMES[phase];
+                sResults.setProperty(prefix + ".ns", String.valueOf(result.nanos[phase]));
+                sResults.setProperty(prefix + ".bytes", String.valueOf(result.bytes[phase]));
+            }
+        }
+        List<String> regressions = Baselines.get().check(mSpec, result);
+        if (!regressions.isEmpty()) {
+            Assert.fail("performance regression of " + mSpec + ":\n" + regressions);
+        }
+    }
+
+    @AfterClass
+    public static void writeResults() throws IOException {
+        String output = System.getProperty("benchmark.output");
+        if (output != null) {
+            synchronized (sResults) {
+                Baselines.save(new File(output, "results.properties"), sResults, "benchmark results of last run");
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.rexy.widgets.layout.benchmark;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.rexy.widgets.layout.BaseViewGroup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * a small jmh style harness: warm up,then time each pass of measure,layout and draw separately,
+ * report the median nanoseconds and the average bytes allocated by current thread per pass.
+ * <p>
+ * each measure pass forces a layout of the whole tree before timing,so measure caches of View
+ * and {@link BaseViewGroup} never short-cut it.
+ * </p>
+ *
+ * @author: rexy
+ */
+public class LayoutBenchmark {
+    public static final int PHASE_MEASURE = 0;
+    public static final int PHASE_LAYOUT = 1;
+    public static final int PHASE_DRAW = 2;
+    public static final int PHASE_COUNT = 3;
+    public static final String[] PHASE_NAMES = new String[]{"measure", "layout", "draw"};
+
+    private final int mWidth;
+    private final int mHeight;
+    private final RecordingCanvas mCanvas = new RecordingCanvas();
+
+    public LayoutBenchmark(int width, int height) {
+        mWidth = width;
+        mHeight = height;
+    }
+
+    /**
+     * fewer iterations for bigger trees to keep the whole run in minutes.
+     */
+    public static int iterationsFor(int childCount) {
+        return Math.max(5, Math.min(200, 20000 / Math.max(1, childCount)));
+    }
+
+    public Result run(BaseViewGroup root, int warmup, int iterations) {
+        Result result = new Result(iterations);
+        int widthSpec = View.MeasureSpec.makeMeasureSpec(mWidth, View.MeasureSpec.EXACTLY);
+        int heightSpec = View.MeasureSpec.makeMeasureSpec(mHeight, View.MeasureSpec.EXACTLY);
+        for (int i = 0; i < warmup; i++) {
+            forceLayoutTree(root);
+            root.measure(widthSpec, heightSpec);
+            root.layout(0, 0, root.getMeasuredWidth(), root.getMeasuredHeight());
+            draw(root);
+        }
+        long[] samples = new long[iterations];
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            long bytes = 0;
+            for (int i = 0; i < iterations; i++) {
+                forceLayoutTree(root);
+                if (phase != PHASE_MEASURE) {
+                    root.measure(widthSpec, heightSpec);
+                }
+                if (phase == PHASE_DRAW) {
+                    root.layout(0, 0, root.getMeasuredWidth(), root.getMeasuredHeight());
+                }
+                long allocStart = allocatedBytes();
+                long timeStart = System.nanoTime();
+                if (phase == PHASE_MEASURE) {
+                    root.measure(widthSpec, heightSpec);
+                } else if (phase == PHASE_LAYOUT) {
+                    root.layout(0, 0, root.getMeasuredWidth(), root.getMeasuredHeight());
+                } else {
+                    draw(root);
+                }
+                samples[i] = System.nanoTime() - timeStart;
+                bytes += allocatedBytes() - allocStart;
+                if (phase == PHASE_MEASURE) {
+                    root.layout(0, 0, root.getMeasuredWidth(), root.getMeasuredHeight());
+                }
+            }
+            Arrays.sort(samples);
+            result.nanos[phase] = samples[iterations / 2];
+            result.bytes[phase] = allocatedBytes() < 0 ? -1 : bytes / iterations;
+        }
+        result.drawOps = mCanvas.getDrawCount();
+        return result;
+    }
+
+    private void draw(BaseViewGroup root) {
+        mCanvas.reset();
+        root.dispatchDraw(mCanvas);
+    }
+
+    private static void forceLayoutTree(View view) {
+        view.forceLayout();
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = group.getChildCount() - 1; i >= 0; i--) {
+                forceLayoutTree(group.getChildAt(i));
+            }
+        }
+    }
+
+    /**
+     * bytes allocated by current thread,-1 if it's not supported by this jvm.
+     */
+    static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    public static class Result {
+        public final int iterations;
+        /**
+         * median nanoseconds per pass indexed by phase.
+         */
+        public final long[] nanos = new long[PHASE_COUNT];
+        /**
+         * average bytes allocated per pass indexed by phase,-1 if not supported.
+         */
+        public final long[] bytes = new long[PHASE_COUNT];
+        /**
+         * draw operations issued in the last draw pass.
+         */
+        public int drawOps;
+
+        Result(int iterations) {
+            this.iterations = iterations;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(120);
+            for (int i = 0; i < PHASE_COUNT; i++) {
+                sb.append(PHASE_NAMES[i]).append("[ns=").append(nanos[i]).append(",bytes=").append(bytes[i]).append("] ");
+            }
+            sb.append("drawOps=").append(drawOps).append(",iterations=").append(iterations);
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.rexy.widgets.layout.benchmark;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Region;
+
+/**
+ * a canvas only counts draw operations and canvas state changes without drawing anything,
+ * so the draw pass measured is the traversal and the draw calls issued by containers.
+ * it never allocates memory in its operations.
+ *
+ * @author: rexy
+ */
+public class RecordingCanvas extends Canvas {
+    private int mDrawCount;
+    private int mSaveCount;
+    private int mClipCount;
+    private int mTranslateCount;
+    private int mSaveDepth = 1;
+
+    public int getDrawCount() {
+        return mDrawCount;
+    }
+
+    public int getSaveCallCount() {
+        return mSaveCount;
+    }
+
+    public int getClipCount() {
+        return mClipCount;
+    }
+
+    public int getTranslateCount() {
+        return mTranslateCount;
+    }
+
+    public void reset() {
+        mDrawCount = mSaveCount = mClipCount = mTranslateCount = 0;
+        mSaveDepth = 1;
+    }
+
+    @Override
+    public boolean isHardwareAccelerated() {
+        return false;
+    }
+
+    @Override
+    public int save() {
+        mSaveCount++;
+        return mSaveDepth++;
+    }
+
+    @Override
+    public int save(int saveFlags) {
+        return save();
+    }
+
+    @Override
+    public int saveLayer(RectF bounds, Paint paint, int saveFlags) {
+        return save();
+    }
+
+    @Override
+    public int saveLayerAlpha(RectF bounds, int alpha, int saveFlags) {
+        return save();
+    }
+
+    @Override
+    public void restore() {
+        if (mSaveDepth > 1) {
+            mSaveDepth--;
+        }
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        mSaveDepth = Math.max(1, saveCount);
+    }
+
+    @Override
+    public int getSaveCount() {
+        return mSaveDepth;
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        mTranslateCount++;
+    }
+
+    @Override
+    public void scale(float sx, float sy) {
+        mTranslateCount++;
+    }
+
+    @Override
+    public boolean clipRect(float left, float top, float right, float bottom) {
+        mClipCount++;
+        return true;
+    }
+
+    @Override
+    public boolean clipRect(int left, int top, int right, int bottom) {
+        mClipCount++;
+        return true;
+    }
+
+    @Override
+    public boolean clipRect(Rect rect) {
+        mClipCount++;
+        return true;
+    }
+
+    @Override
+    public boolean clipRect(RectF rect) {
+        mClipCount++;
+        return true;
+    }
+
+    @Override
+    public boolean clipRect(float left, float top, float right, float bottom, Region.Op op) {
+        mClipCount++;
+        return true;
+    }
+
+    @Override
+    public boolean quickReject(float left, float top, float right, float bottom, EdgeType type) {
+        return false;
+    }
+
+    @Override
+    public boolean quickReject(RectF rect, EdgeType type) {
+        return false;
+    }
+
+    @Override
+    public void drawColor(int color) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawPaint(Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawRect(Rect r, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawRect(RectF rect, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawLines(float[] pts, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        mDrawCount++;
+    }
+}
@@ -0,0 +1,27 @@
+package com.rexy.widgets.layout.benchmark;
+
+import android.content.Context;
+import android.view.accessibility.AccessibilityManager;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowAccessibilityManager;
+
+/**
+ * the default shadow creates a new accessibility manager with its service for every getInstance,
+ * which View.onScrollChanged calls on each scroll,so it's cached to leave only allocation of the measured code.
+ *
+ * @author: rexy
+ */
+@Implements(AccessibilityManager.class)
+public class ShadowCachedAccessibilityManager extends ShadowAccessibilityManager {
+    private static AccessibilityManager sInstance;
+
+    @Implementation
+    public static AccessibilityManager getInstance(Context context) throws Exception {
+        if (sInstance == null) {
+            sInstance = ShadowAccessibilityManager.getInstance(context);
+        }
+        return sInstance;
+    }
+}
@@ -0,0 +1,15 @@
+package com.rexy.widgets.layout.benchmark;
+
+import android.view.View;
+
+import org.robolectric.annotation.Implements;
+
+/**
+ * replaces the default view shadow so scrollTo,scrollBy and getScrollX/Y run the real framework code,
+ * the default shadow keeps scroll position in its own fields and allocates for every scroll by reflection.
+ *
+ * @author: rexy
+ */
+@Implements(View.class)
+public class ShadowRealScrollView {
+}
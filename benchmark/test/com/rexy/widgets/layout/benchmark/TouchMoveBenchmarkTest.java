@@ -0,0 +1,92 @@
+package com.rexy.widgets.layout.benchmark;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.rexy.widgets.layout.BaseViewGroup;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/**
+ * bytes allocated by ScrollLayout per ACTION_MOVE while dragging without a nested parent,
+ * all events are obtained before measuring and dispatched to the ScrollLayout directly so only its dispatch is counted.
+ * VelocityTracker is native on device but its shadow allocates for each movement,the same movements are added to
+ * another tracker to subtract that cost.
+ *
+ * @author: rexy
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23, shadows = {ShadowRealScrollView.class, ShadowCachedAccessibilityManager.class})
+public class TouchMoveBenchmarkTest {
+    private static final int ROOT_WIDTH = 1080;
+    private static final int ROOT_HEIGHT = 1920;
+    private static final int WARMUP_MOVES = 50;
+    private static final int MOVES = 200;
+    private static final int MOVE_STEP = 3;
+
+    @Test
+    public void dragWithoutAllocation() {
+        BaseViewGroup root = new TreeFactory(RuntimeEnvironment.application).build(new TreeSpec(TreeSpec.SCROLL, 200, 1, 4, 2));
+        //a dragging ScrollLayout asks its parent not to intercept,so it needs a parent.
+        FrameLayout parent = new FrameLayout(RuntimeEnvironment.application);
+        parent.addView(root, new FrameLayout.LayoutParams(ROOT_WIDTH, ROOT_HEIGHT));
+        parent.measure(View.MeasureSpec.makeMeasureSpec(ROOT_WIDTH, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(ROOT_HEIGHT, View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, parent.getMeasuredWidth(), parent.getMeasuredHeight());
+
+        final long downTime = SystemClock.uptimeMillis();
+        final float x = ROOT_WIDTH / 2f, startY = ROOT_HEIGHT - 100;
+        MotionEvent[] moves = new MotionEvent[WARMUP_MOVES + MOVES];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = MotionEvent.obtain(downTime, downTime + (i + 1) * 8, MotionEvent.ACTION_MOVE, x, startY - (i + 1) * MOVE_STEP, 0);
+        }
+        MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, startY, 0);
+        MotionEvent up = MotionEvent.obtain(downTime, downTime + (moves.length + 1) * 8, MotionEvent.ACTION_UP, x, startY - moves.length * MOVE_STEP, 0);
+
+        root.dispatchTouchEvent(down);
+        for (int i = 0; i < WARMUP_MOVES; i++) {
+            root.dispatchTouchEvent(moves[i]);
+        }
+        long allocStart = LayoutBenchmark.allocatedBytes();
+        long timeStart = System.nanoTime();
+        for (int i = WARMUP_MOVES; i < moves.length; i++) {
+            root.dispatchTouchEvent(moves[i]);
+        }
+        long nanos = (System.nanoTime() - timeStart) / MOVES;
+        long allocEnd = LayoutBenchmark.allocatedBytes();
+        int scrolled = root.getScrollY();
+        root.dispatchTouchEvent(up);
+        long trackerBytes = velocityTrackerBytes(moves);
+        long bytes = allocStart < 0 ? -1 : (allocEnd - allocStart - trackerBytes) / MOVES;
+        System.out.println("ScrollLayout move[ns=" + nanos + ",bytes=" + bytes + ",velocityTrackerBytes=" + trackerBytes / MOVES + "] scrollY=" + scrolled);
+
+        Assert.assertTrue("drag did not follow the moves,scrollY=" + scrolled, scrolled >= MOVES * MOVE_STEP);
+        if (bytes >= 0) {
+            Assert.assertEquals("bytes allocated per ACTION_MOVE", 0, bytes);
+        }
+    }
+
+    /**
+     * bytes allocated by VelocityTracker for the measured moves.
+     */
+    private static long velocityTrackerBytes(MotionEvent[] moves) {
+        VelocityTracker tracker = VelocityTracker.obtain();
+        for (int i = 0; i < WARMUP_MOVES; i++) {
+            tracker.addMovement(moves[i]);
+        }
+        long allocStart = LayoutBenchmark.allocatedBytes();
+        for (int i = WARMUP_MOVES; i < moves.length; i++) {
+            tracker.addMovement(moves[i]);
+        }
+        long bytes = LayoutBenchmark.allocatedBytes() - allocStart;
+        tracker.recycle();
+        return bytes;
+    }
+}
@@ -0,0 +1,75 @@
+package com.rexy.widgets.layout.benchmark;
+
+import com.rexy.widgets.layout.TouchResampler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * frame to frame scroll delta variance of a steady drag on a display faster than touch sampling,
+ * raw scrolls to the newest delivered sample while resampled scrolls to {@link TouchResampler} at frame time.
+ *
+ * @author: rexy
+ */
+public class TouchResampleBenchmarkTest {
+    private static final float SPEED = 2f;
+    private static final int TOUCH_INTERVAL = 16;
+    private static final int TOUCH_JITTER = 2;
+    private static final int DELIVERY_DELAY = 1;
+    private static final int DURATION = 2000;
+
+    @Test
+    public void resampleReducesDeltaVariance() {
+        int[] refreshRates = new int[]{60, 90, 120};
+        for (int rate : refreshRates) {
+            double raw = deltaVariance(rate, false);
+            double resampled = deltaVariance(rate, true);
+            System.out.println(String.format("drag %dHz touch on %dHz display: raw variance=%.2f,resampled variance=%.2f", 1000 / TOUCH_INTERVAL, rate, raw, resampled));
+            if (rate > 1000 / TOUCH_INTERVAL) {
+                Assert.assertTrue("resampled variance " + resampled + " is not below raw " + raw + " at " + rate + "Hz", resampled < raw);
+            }
+        }
+    }
+
+    private static double deltaVariance(int refreshRate, boolean resample) {
+        Random random = new Random(refreshRate);
+        int sampleCount = DURATION / TOUCH_INTERVAL;
+        long[] sampleTime = new long[sampleCount];
+        for (int i = 0; i < sampleCount; i++) {
+            sampleTime[i] = i * TOUCH_INTERVAL + random.nextInt(2 * TOUCH_JITTER + 1) - TOUCH_JITTER;
+        }
+        TouchResampler resampler = new TouchResampler();
+        float[] out = new float[2];
+        float rawPosition = 0, lastPosition = Float.NaN;
+        double sum = 0, sumSquare = 0;
+        int deltaCount = 0, delivered = 0;
+        int frameCount = DURATION * refreshRate / 1000;
+        for (int frame = 1; frame < frameCount; frame++) {
+            long frameTime = frame * 1000L / refreshRate;
+            while (delivered < sampleCount && sampleTime[delivered] + DELIVERY_DELAY <= frameTime) {
+                rawPosition = sampleTime[delivered] * SPEED;
+                resampler.addSample(sampleTime[delivered], 0, rawPosition);
+                delivered++;
+            }
+            if (delivered == 0) {
+                continue;
+            }
+            float position = rawPosition;
+            if (resample && resampler.resample(frameTime, out)) {
+                position = out[1];
+            }
+            position = Math.round(position);
+            if (!Float.isNaN(lastPosition)) {
+                double delta = position - lastPosition;
+                sum += delta;
+                sumSquare += delta * delta;
+                deltaCount++;
+            }
+            lastPosition = position;
+        }
+        double mean = sum / deltaCount;
+        return sumSquare / deltaCount - mean * mean;
+    }
+}
@@ -0,0 +1,137 @@
+package com.rexy.widgets.layout.benchmark;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.rexy.widgets.adapter.ItemProvider;
+import com.rexy.widgets.layout.BaseViewGroup;
+import com.rexy.widgets.layout.BorderDivider;
+import com.rexy.widgets.layout.ColumnLayout;
+import com.rexy.widgets.layout.LabelLayout;
+import com.rexy.widgets.layout.NestFloatLayout;
+import com.rexy.widgets.layout.PageScrollView;
+import com.rexy.widgets.layout.ScrollLayout;
+import com.rexy.widgets.layout.WrapLayout;
+
+/**
+ * build synthetic view trees from {@link TreeSpec},leaves are plain views with fixed but varied size
+ * so the cost measured is mostly the containers' own.
+ *
+ * @author: rexy
+ */
+public class TreeFactory {
+    private static final int LEAF_WIDTH = 120;
+    private static final int LEAF_HEIGHT = 80;
+    private static final int DIVIDER_COLOR = 0xFFDDDDDD;
+
+    private final Context mContext;
+
+    public TreeFactory(Context context) {
+        mContext = context;
+    }
+
+    public BaseViewGroup build(TreeSpec spec) {
+        int[] leafCounter = new int[]{spec.childCount};
+        return buildLevel(spec, 1, leafCounter);
+    }
+
+    private BaseViewGroup buildLevel(TreeSpec spec, int level, int[] leafRemain) {
+        BaseViewGroup container = newContainer(spec);
+        int fanout = spec.fanout();
+        View[] children = new View[fanout];
+        int count = 0;
+        for (int i = 0; i < fanout && leafRemain[0] > 0; i++) {
+            if (level < spec.depth) {
+                children[count++] = buildLevel(spec, level + 1, leafRemain);
+            } else {
+                children[count++] = newLeaf(spec, spec.childCount - leafRemain[0]);
+                leafRemain[0]--;
+            }
+        }
+        addChildren(container, spec, children, count);
+        return container;
+    }
+
+    private BaseViewGroup newContainer(TreeSpec spec) {
+        BaseViewGroup container;
+        if (TreeSpec.WRAP.equals(spec.container)) {
+            container = new WrapLayout(mContext);
+        } else if (TreeSpec.COLUMN.equals(spec.container)) {
+            ColumnLayout column = new ColumnLayout(mContext);
+            column.setColumnNumber(4);
+            container = column;
+        } else if (TreeSpec.SCROLL.equals(spec.container)) {
+            container = new ScrollLayout(mContext);
+            container.setOrientation(BaseViewGroup.VERTICAL);
+        } else if (TreeSpec.PAGE_SCROLL.equals(spec.container)) {
+            container = new PageScrollView(mContext);
+            container.setOrientation(BaseViewGroup.VERTICAL);
+        } else if (TreeSpec.NEST_FLOAT.equals(spec.container)) {
+            container = new NestFloatLayout(mContext);
+        } else if (TreeSpec.LABEL.equals(spec.container)) {
+            container = new LabelLayout(mContext);
+        } else {
+            throw new IllegalArgumentException("unknown container " + spec.container);
+        }
+        if (spec.divider > 0) {
+            BorderDivider divider = container.getBorderDivider();
+            divider.setDividerWidthHorizontal(spec.divider);
+            divider.setDividerColorHorizontal(DIVIDER_COLOR);
+            divider.setDividerWidthVertical(spec.divider);
+            divider.setDividerColorVertical(DIVIDER_COLOR);
+            divider.setContentMarginHorizontal(spec.divider);
+            divider.setContentMarginVertical(spec.divider);
+        }
+        return container;
+    }
+
+    private View newLeaf(TreeSpec spec, int index) {
+        View leaf = new View(mContext);
+        BaseViewGroup.LayoutParams params = new BaseViewGroup.LayoutParams(LEAF_WIDTH + (index % 7) * 8, LEAF_HEIGHT + (index % 5) * 6);
+        params.setMargins(spec.margin, spec.margin, spec.margin, spec.margin);
+        leaf.setLayoutParams(params);
+        return leaf;
+    }
+
+    private void addChildren(BaseViewGroup container, TreeSpec spec, final View[] children, final int count) {
+        if (container instanceof LabelLayout) {
+            ((LabelLayout) container).setItemProvider(new ItemProvider.ViewProvider() {
+                @Override
+                public int getViewType(int position) {
+                    return 0;
+                }
+
+                @Override
+                public View getView(int position, View convertView, ViewGroup parent) {
+                    return children[position];
+                }
+
+                @Override
+                public CharSequence getTitle(int position) {
+                    return null;
+                }
+
+                @Override
+                public Object getItem(int position) {
+                    return null;
+                }
+
+                @Override
+                public int getCount() {
+                    return count;
+                }
+            });
+        } else {
+            for (int i = 0; i < count; i++) {
+                View child = children[i];
+                if (child.getLayoutParams() == null) {
+                    BaseViewGroup.LayoutParams params = new BaseViewGroup.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+                    params.setMargins(spec.margin, spec.margin, spec.margin, spec.margin);
+                    child.setLayoutParams(params);
+                }
+                container.addView(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.rexy.widgets.layout.benchmark;
+
+/**
+ * description of a synthetic view tree built by {@link TreeFactory}.
+ *
+ * @author: rexy
+ */
+public class TreeSpec {
+    public static final String WRAP = "WrapLayout";
+    public static final String COLUMN = "ColumnLayout";
+    public static final String SCROLL = "ScrollLayout";
+    public static final String PAGE_SCROLL = "PageScrollView";
+    public static final String NEST_FLOAT = "NestFloatLayout";
+    public static final String LABEL = "LabelLayout";
+
+    public static final String[] CONTAINERS = new String[]{WRAP, COLUMN, SCROLL, PAGE_SCROLL, NEST_FLOAT, LABEL};
+
+    /**
+     * simple name of container class,one of {@link #CONTAINERS}
+     */
+    public final String container;
+    /**
+     * total leaf views of the tree.
+     */
+    public final int childCount;
+    /**
+     * levels of container,1 means all leaves are direct children of root.
+     */
+    public final int depth;
+    /**
+     * margin of each leaf in pixel.
+     */
+    public final int margin;
+    /**
+     * divider width in pixel between items,0 to disable divider.
+     */
+    public final int divider;
+
+    public TreeSpec(String container, int childCount, int depth, int margin, int divider) {
+        this.container = container;
+        this.childCount = Math.max(1, childCount);
+        this.depth = Math.max(1, depth);
+        this.margin = margin;
+        this.divider = divider;
+    }
+
+    /**
+     * children count of each container to hold {@link #childCount} leaves in {@link #depth} levels.
+     */
+    public int fanout() {
+        if (depth == 1) {
+            return childCount;
+        }
+        return Math.max(2, (int) Math.ceil(Math.pow(childCount, 1d / depth)));
+    }
+
+    /**
+     * key prefix in baselines,such as WrapLayout.1000x1
+     */
+    public String key() {
+        return container + "." + childCount + "x" + depth;
+    }
+
+    @Override
+    public String toString() {
+        return key() + "[margin=" + margin + ",divider=" + divider + "]";
+    }
+}
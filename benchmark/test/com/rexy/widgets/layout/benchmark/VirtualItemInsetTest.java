@@ -0,0 +1,98 @@
+package com.rexy.widgets.layout.benchmark;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.rexy.widgets.adapter.ItemProvider;
+import com.rexy.widgets.layout.BaseViewGroup;
+import com.rexy.widgets.layout.ScrollLayout;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/**
+ * decoration insets of a virtualized ScrollLayout are cached by item position,
+ * scrolling through all items must ask the decoration once per position though attached children keep changing.
+ *
+ * @author: rexy
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 23, shadows = {ShadowRealScrollView.class, ShadowCachedAccessibilityManager.class})
+public class VirtualItemInsetTest {
+    private static final int ROOT_WIDTH = 1080;
+    private static final int ROOT_HEIGHT = 1920;
+    private static final int ITEM_COUNT = 500;
+    private static final int ITEM_HEIGHT = 80;
+    private static final int SCROLL_STEP = 37;
+
+    @Test
+    public void insetsComputedOncePerPosition() {
+        ScrollLayout root = new ScrollLayout(RuntimeEnvironment.application);
+        root.setOrientation(BaseViewGroup.VERTICAL);
+        final int[] offsetCalls = new int[ITEM_COUNT];
+        root.setDrawerDecoration(new BaseViewGroup.DrawerDecoration() {
+            @Override
+            public void getItemOffsets(Rect outRect, View child, int itemPosition, BaseViewGroup parent) {
+                offsetCalls[itemPosition]++;
+                outRect.set(0, 2, 0, 2);
+            }
+        });
+        root.setViewProvider(new ItemProvider.ViewProvider() {
+            @Override
+            public int getViewType(int position) {
+                return 0;
+            }
+
+            @Override
+            public View getView(int position, View convertView, ViewGroup parent) {
+                if (convertView == null) {
+                    convertView = new View(parent.getContext());
+                    convertView.setLayoutParams(new BaseViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ITEM_HEIGHT));
+                }
+                return convertView;
+            }
+
+            @Override
+            public CharSequence getTitle(int position) {
+                return null;
+            }
+
+            @Override
+            public Object getItem(int position) {
+                return null;
+            }
+
+            @Override
+            public int getCount() {
+                return ITEM_COUNT;
+            }
+        });
+        FrameLayout parent = new FrameLayout(RuntimeEnvironment.application);
+        parent.addView(root, new FrameLayout.LayoutParams(ROOT_WIDTH, ROOT_HEIGHT));
+        layout(parent);
+
+        //scroll range grows as estimated items get measured.
+        int maxScroll;
+        while (root.getScrollY() < (maxScroll = root.getContentHeight() - ROOT_HEIGHT)) {
+            root.scrollTo(0, Math.min(root.getScrollY() + SCROLL_STEP, maxScroll));
+            if (root.isLayoutRequested()) {
+                layout(parent);
+            }
+        }
+        Assert.assertEquals("offsets of the last item", 1, offsetCalls[ITEM_COUNT - 1]);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            Assert.assertEquals("offsets of item " + i, 1, offsetCalls[i]);
+        }
+    }
+
+    private static void layout(FrameLayout parent) {
+        parent.measure(View.MeasureSpec.makeMeasureSpec(ROOT_WIDTH, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(ROOT_HEIGHT, View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, parent.getMeasuredWidth(), parent.getMeasuredHeight());
+    }
+}
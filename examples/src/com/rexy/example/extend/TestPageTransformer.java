@@ -1,65 +1,38 @@
 package com.rexy.example.extend;
 
-import android.view.View;
-
 import com.rexy.widgets.layout.PageScrollView;
 
 /**
  * Created by rexy on 17/4/12.
  */
 
-public class TestPageTransformer implements PageScrollView.PageTransformer {
+public class TestPageTransformer extends PageScrollView.PropertyPageTransformer {
 
     private static final float MIN_SCALE = 0.7f;
     private static final float MIN_ALPHA = 0.3f;
     private boolean mAdjustTranslate = false;
 
-    public void transformPage(View view, float position, boolean horizontal) {
-        int pageSize = horizontal ? view.getWidth() : view.getHeight();
-        if (position < -1) { // [-Infinity,-1)way off-screen to the left
-            view.setAlpha(MIN_ALPHA);
-            view.setScaleX(MIN_SCALE);
-            view.setScaleY(MIN_SCALE);
-        } else if (position <= 1) { // [-1,1]
+    @Override
+    public void transformPage(PageScrollView.PageProperties properties, float position, int pageSize, boolean horizontal) {
+        if (position < -1 || position > 1) { // way off-screen
+            properties.alpha = MIN_ALPHA;
+            properties.scaleX = MIN_SCALE;
+            properties.scaleY = MIN_SCALE;
+        } else { // [-1,1]
             float percent = 1 - Math.abs(position);
             float scale = MIN_SCALE + (1 - MIN_SCALE) * percent;
             if (mAdjustTranslate) {
                 float horizontalMargin = pageSize * (1 - scale) / 2;
-                if (position > 0) {
-                    if (horizontal) {
-                        view.setTranslationX(horizontalMargin);
-                    } else {
-                        view.setTranslationY(horizontalMargin);
-                    }
+                float translate = position > 0 ? horizontalMargin : -horizontalMargin;
+                if (horizontal) {
+                    properties.translationX = translate;
                 } else {
-                    if (horizontal) {
-                        view.setTranslationX(-horizontalMargin);
-                    } else {
-                        view.setTranslationY(-horizontalMargin);
-                    }
+                    properties.translationY = translate;
                 }
             }
-            view.setScaleX(scale);
-            view.setScaleY(scale);
-            view.setAlpha(MIN_ALPHA + (1 - MIN_ALPHA) * percent);
-        } else { // (1,+Infinity]page is way off-screen to the right.
-            view.setAlpha(MIN_ALPHA);
-            view.setScaleX(MIN_SCALE);
-            view.setScaleY(MIN_SCALE);
-        }
-    }
-
-    @Override
-    public void recoverTransformPage(View view, boolean horizontal) {
-        view.setAlpha(1);
-        view.setScaleX(1);
-        view.setScaleY(1);
-        if (mAdjustTranslate) {
-            if (horizontal) {
-                view.setTranslationX(0);
-            } else {
-                view.setTranslationY(0);
-            }
+            properties.scaleX = scale;
+            properties.scaleY = scale;
+            properties.alpha = MIN_ALPHA + (1 - MIN_ALPHA) * percent;
         }
     }
 }
@@ -12,6 +12,7 @@ import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 import android.widget.FrameLayout;
 import android.widget.LinearLayout;
 
@@ -181,6 +182,13 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
      * a decoration interface to adjust child margin and draw some over or under the child
      */
     DrawerDecoration mDrawerDecoration;
+    /**
+     * per item position insets and measured extents,insets of {@link #mDrawerDecoration} are cached in it
+     * until item count or decoration changed.
+     */
+    private final ItemStore mItemStore = new ItemStore();
+    private final Rect mItemInsetTemp = new Rect();
+    private int mItemOffsetItemCount = -1;
 
 
     protected int mTouchSlop = 0;
@@ -189,20 +197,71 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
      */
     protected BorderDivider mBorderDivider = null;
 
+    /**
+     * virtual index table:virtual item position to child index and the reverse,rebuilt lazily when marked dirty.
+     */
+    private int[] mVirtualToChild;
+    private int[] mChildToVirtual;
     private int mVirtualCount = 0;
+    private int mVirtualTableChildCount = -1;
+    private boolean mVirtualTableDirty = true;
     private int mContentWidth = 0;
     private int mContentHeight = 0;
     private int mMeasureState = 0;
     private Rect mContentInset = new Rect();
     private Rect mVisibleContentBounds = new Rect();
+    /**
+     * scroll range cached between content size or visible size changes,-1 if stale.
+     */
+    private int mHorizontalScrollRange = -1, mVerticalScrollRange = -1;
 
     private boolean mAttachLayout = false;
     private boolean mItemTouchInvoked = false;
 
+    /**
+     * measure cache:skip {@link #dispatchMeasure(int, int)} when measured again with one of the last few MeasureSpec pairs
+     * and nothing has requested layout since they were measured.
+     */
+    private static final int MEASURE_CACHE_SIZE = 4;
+    private static final int MEASURE_CACHE_STRIDE = 7;
+    private boolean mMeasureCacheEnable = false;
+    /**
+     * [widthSpec,heightSpec,measuredWidthAndState,measuredHeightAndState,contentWidth,contentHeight,childState] of recent measures,
+     * all entries belong to mMeasureCacheGeneration.
+     */
+    private final int[] mMeasureCache = new int[MEASURE_CACHE_SIZE * MEASURE_CACHE_STRIDE];
+    private int mMeasureCacheCount, mMeasureCacheNext;
+    private int mLayoutGeneration, mMeasureCacheGeneration;
+    /**
+     * MeasureSpec children were last measured with,a hit of other MeasureSpec measures children again before layout.
+     */
+    private int mDispatchedWidthSpec, mDispatchedHeightSpec;
+    private int mMeasureCacheHitWidthSpec, mMeasureCacheHitHeightSpec;
+    private boolean mMeasureBeforeLayout = false;
+    private int mMeasureCacheHitCount, mMeasureCacheMissCount;
+    /**
+     * true if layout is requested by itself or structure changed since last layout,false if only its children requested.
+     */
+    private boolean mSelfLayoutRequested = true;
+    /**
+     * batch update:requestLayout and invalidate are deferred until the outermost endBatchUpdate.
+     */
+    private int mBatchUpdateDepth = 0;
+    private boolean mBatchLayoutPending, mBatchInvalidatePending;
+
+    /**
+     * draw culling:skip drawing children out of visible content bounds extended by a margin.
+     */
+    private boolean mDrawCullingEnable = false;
+    private int mDrawCullingMargin = 0;
+    private int mDrawCulledCount, mLastDrawCulledCount;
+    private Rect mDrawCullingBounds = new Rect();
+
     private String mLogTag;
     private boolean mDevLog = true;
     private long mTimeMeasureStart, mTimeLayoutStart, mTimeDrawStart;
-    long mLastMeasureCost, mLastLayoutCost, mLastDrawCost;
+    private final LayoutMetrics mLayoutMetrics = new LayoutMetrics();
+    private LayoutTrace mLayoutTrace;
 
 
     public BaseViewGroup(Context context) {
@@ -270,6 +329,38 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
         mDevLog = devMode;
     }
 
+    /**
+     * nanosecond cost metrics of measure,layout and draw of this container.
+     */
+    public LayoutMetrics getLayoutMetrics() {
+        return mLayoutMetrics;
+    }
+
+    /**
+     * set a trace recorder,once set measure,layout,draw and scroll events are recorded into it
+     * instead of building dev log message.
+     */
+    public void setLayoutTrace(LayoutTrace layoutTrace) {
+        mLayoutTrace = layoutTrace;
+    }
+
+    public LayoutTrace getLayoutTrace() {
+        return mLayoutTrace;
+    }
+
+    /**
+     * record a trace event if a {@link LayoutTrace} is set and enabled.
+     *
+     * @return true if recorded,then the caller should skip its dev log.
+     */
+    boolean trace(int event, int phase, int arg0, int arg1, int arg2, int arg3) {
+        if (mLayoutTrace != null && mLayoutTrace.isEnable()) {
+            mLayoutTrace.record(event, phase, this, arg0, arg1, arg2, arg3);
+            return true;
+        }
+        return false;
+    }
+
     protected void print(CharSequence category, CharSequence msg) {
         print(category, msg, false);
     }
@@ -292,9 +383,315 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
     protected void requestLayoutIfNeed() {
         if (!isLayoutRequested()) {
             requestLayout();
+        } else {
+            //layout already requested,but measure cache may be stored after that.
+            mLayoutGeneration++;
+            mSelfLayoutRequested = true;
+            invalidateAncestorMeasureCache();
+        }
+    }
+
+    /**
+     * a request never goes up to a parent which has requested layout,measure caches of such ancestors are dropped here.
+     * a plain child view can't do so,see {@link #setMeasureCacheEnable(boolean)}.
+     */
+    private void invalidateAncestorMeasureCache() {
+        ViewParent parent = getParent();
+        while (parent != null && parent.isLayoutRequested()) {
+            if (parent instanceof BaseViewGroup) {
+                ((BaseViewGroup) parent).mLayoutGeneration++;
+            }
+            parent = parent.getParent();
+        }
+    }
+
+    @Override
+    public void requestLayout() {
+        //child visibility change or header and footer change will come here.
+        mVirtualTableDirty = true;
+        mLayoutGeneration++;
+        invalidateAncestorMeasureCache();
+        if (mBatchUpdateDepth > 0) {
+            mBatchLayoutPending = true;
+            return;
+        }
+        if (!mSelfLayoutRequested) {
+            //a child never propagate its request to a parent who has requested layout.
+            mSelfLayoutRequested = isLayoutRequested() || !hasChildLayoutRequested();
+        }
+        super.requestLayout();
+    }
+
+    /**
+     * a child asks it before requesting layout and stops when it's true,so visibility changes of children
+     * to or from GONE never reach {@link #requestLayout()} while a layout is pending,the virtual index table is marked dirty here.
+     */
+    @Override
+    public boolean isLayoutRequested() {
+        boolean layoutRequested = super.isLayoutRequested();
+        if (layoutRequested) {
+            mVirtualTableDirty = true;
         }
+        return layoutRequested;
     }
 
+    @Override
+    public void forceLayout() {
+        mLayoutGeneration++;
+        mSelfLayoutRequested = true;
+        super.forceLayout();
+    }
+
+    @Override
+    public void invalidate() {
+        if (mBatchUpdateDepth > 0) {
+            mBatchInvalidatePending = true;
+            return;
+        }
+        super.invalidate();
+    }
+
+    //start:batch update
+
+    /**
+     * start a batch update,{@link #requestLayout()} reaching this view from itself,its {@link BorderDivider} or its children
+     * and {@link #invalidate()} called on this view are deferred until the outermost {@link #endBatchUpdate()}
+     * and collapsed into at most one layout request and one invalidate.
+     * invalidates of children go through invalidateChild of this view and are not deferred.
+     * calls can be nested but must be paired.
+     */
+    public void beginBatchUpdate() {
+        mBatchUpdateDepth++;
+    }
+
+    public void endBatchUpdate() {
+        if (mBatchUpdateDepth > 0 && --mBatchUpdateDepth == 0) {
+            boolean layoutPending = mBatchLayoutPending, invalidatePending = mBatchInvalidatePending;
+            mBatchLayoutPending = mBatchInvalidatePending = false;
+            if (layoutPending) {
+                //can't tell who requested in batch.
+                mSelfLayoutRequested = true;
+                requestLayout();
+            }
+            if (invalidatePending) {
+                invalidate();
+            }
+        }
+    }
+
+    public boolean isBatchUpdating() {
+        return mBatchUpdateDepth > 0;
+    }
+    //end:batch update
+
+    private boolean hasChildLayoutRequested() {
+        final int count = getChildCount();
+        for (int i = 0; i < count; i++) {
+            final View child = getChildAt(i);
+            if (!skipChild(child) && child.isLayoutRequested()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * whether layout is requested by itself or its children changed since last layout.
+     * false means only some of its children requested layout,those children still return true for {@link View#isLayoutRequested()}
+     * until they are laid out,so a subclass can measure and layout them only.
+     */
+    protected final boolean isSelfLayoutRequested() {
+        return mSelfLayoutRequested;
+    }
+
+    //start:measure cache
+
+    /**
+     * enable measure cache,results of the last few MeasureSpec pairs are kept,when measured again with one of them
+     * and neither itself nor its children has requested layout since,the result is reused and {@link #dispatchMeasure(int, int)} is skipped.
+     * it's useful when nested in a parent which measure its children more than once per frame with different MeasureSpec,
+     * such as a weighted LinearLayout.if children were measured with other MeasureSpec they are measured again before layout.
+     * <p>
+     * a child view group of this library drops the cache of ancestors when it requests layout,
+     * but a plain child view changed between two measures of the same frame can't be seen since
+     * its request stops at this view which has already requested layout,call {@link #invalidateMeasureCache()} in that case.
+     * </p>
+     */
+    public void setMeasureCacheEnable(boolean measureCacheEnable) {
+        if (mMeasureCacheEnable != measureCacheEnable) {
+            mMeasureCacheEnable = measureCacheEnable;
+            mMeasureCacheCount = 0;
+        }
+    }
+
+    public boolean isMeasureCacheEnable() {
+        return mMeasureCacheEnable;
+    }
+
+    /**
+     * drop cached measure results so next measure will call {@link #dispatchMeasure(int, int)} anyway.
+     */
+    public void invalidateMeasureCache() {
+        mMeasureCacheCount = 0;
+    }
+
+    public int getMeasureCacheHitCount() {
+        return mMeasureCacheHitCount;
+    }
+
+    public int getMeasureCacheMissCount() {
+        return mMeasureCacheMissCount;
+    }
+
+    public void resetMeasureCacheCount() {
+        mMeasureCacheHitCount = mMeasureCacheMissCount = 0;
+    }
+
+    /**
+     * entry index of the MeasureSpec pair in measure cache,-1 if none.
+     */
+    private int findMeasureCache(int widthMeasureSpec, int heightMeasureSpec) {
+        if (mMeasureCacheGeneration != mLayoutGeneration) {
+            mMeasureCacheCount = 0;
+        }
+        for (int i = 0; i < mMeasureCacheCount; i++) {
+            int index = i * MEASURE_CACHE_STRIDE;
+            if (mMeasureCache[index] == widthMeasureSpec && mMeasureCache[index + 1] == heightMeasureSpec) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private boolean applyMeasureCache(int widthMeasureSpec, int heightMeasureSpec) {
+        final int index = findMeasureCache(widthMeasureSpec, heightMeasureSpec);
+        if (index >= 0) {
+            final int[] cache = mMeasureCache;
+            mMeasureCacheHitCount++;
+            mContentWidth = cache[index + 4];
+            mContentHeight = cache[index + 5];
+            mHorizontalScrollRange = mVerticalScrollRange = -1;
+            mMeasureState = cache[index + 6];
+            setMeasuredDimension(cache[index + 2], cache[index + 3]);
+            mMeasureBeforeLayout = widthMeasureSpec != mDispatchedWidthSpec || heightMeasureSpec != mDispatchedHeightSpec;
+            mMeasureCacheHitWidthSpec = widthMeasureSpec;
+            mMeasureCacheHitHeightSpec = heightMeasureSpec;
+            return true;
+        }
+        mMeasureCacheMissCount++;
+        return false;
+    }
+
+    private void storeMeasureCache(int widthMeasureSpec, int heightMeasureSpec) {
+        int index = findMeasureCache(widthMeasureSpec, heightMeasureSpec);
+        if (mMeasureCacheCount == 0) {
+            mMeasureCacheNext = 0;
+            mMeasureCacheGeneration = mLayoutGeneration;
+        }
+        if (index < 0) {
+            index = mMeasureCacheNext * MEASURE_CACHE_STRIDE;
+            mMeasureCacheNext = (mMeasureCacheNext + 1) % MEASURE_CACHE_SIZE;
+            mMeasureCacheCount = Math.min(mMeasureCacheCount + 1, MEASURE_CACHE_SIZE);
+        }
+        final int[] cache = mMeasureCache;
+        cache[index] = widthMeasureSpec;
+        cache[index + 1] = heightMeasureSpec;
+        cache[index + 2] = getMeasuredWidthAndState();
+        cache[index + 3] = getMeasuredHeightAndState();
+        cache[index + 4] = mContentWidth;
+        cache[index + 5] = mContentHeight;
+        cache[index + 6] = mMeasureState;
+    }
+    //end:measure cache
+
+    //start:draw culling
+
+    /**
+     * only draw children intersecting with the visible content bounds extended by {@link #setDrawCullingMargin(int)},
+     * it's useful for scroll container holding lots of off-screen children.
+     * children with animation or transformation are never culled.
+     */
+    public void setDrawCullingEnable(boolean drawCullingEnable) {
+        if (mDrawCullingEnable != drawCullingEnable) {
+            mDrawCullingEnable = drawCullingEnable;
+            invalidate();
+        }
+    }
+
+    public boolean isDrawCullingEnable() {
+        return mDrawCullingEnable;
+    }
+
+    /**
+     * extra space out of visible content bounds in which children are still drawn.
+     */
+    public void setDrawCullingMargin(int drawCullingMargin) {
+        if (mDrawCullingMargin != drawCullingMargin) {
+            mDrawCullingMargin = drawCullingMargin;
+            if (mDrawCullingEnable) {
+                invalidate();
+            }
+        }
+    }
+
+    public int getDrawCullingMargin() {
+        return mDrawCullingMargin;
+    }
+
+    /**
+     * count of children culled in last draw pass.
+     */
+    public int getLastDrawCulledCount() {
+        return mLastDrawCulledCount;
+    }
+
+    private void computeDrawCullingBounds() {
+        int scrollX = getScrollX(), scrollY = getScrollY();
+        if (mClipToPadding) {
+            mDrawCullingBounds.set(scrollX + getPaddingLeft(), scrollY + getPaddingTop()
+                    , scrollX + getWidth() - getPaddingRight(), scrollY + getHeight() - getPaddingBottom());
+        } else {
+            mDrawCullingBounds.set(scrollX, scrollY, scrollX + getWidth(), scrollY + getHeight());
+        }
+        mDrawCullingBounds.inset(-mDrawCullingMargin, -mDrawCullingMargin);
+    }
+
+    /**
+     * whether a rect in this view's content coordinate should be skipped when draw.
+     * {@link DrawerDecoration} and subclass drawing dividers should use it to cull their drawing the same as children.
+     *
+     * @return always false if draw culling is disable.
+     */
+    public boolean isDrawCulled(int left, int top, int right, int bottom) {
+        if (mDrawCullingEnable) {
+            Rect bounds = mDrawCullingBounds;
+            return right <= bounds.left || left >= bounds.right || bottom <= bounds.top || top >= bounds.bottom;
+        }
+        return false;
+    }
+
+    /**
+     * whether a child should be skipped when draw.
+     *
+     * @see #isDrawCulled(int, int, int, int)
+     */
+    public boolean isDrawCulled(View child) {
+        if (mDrawCullingEnable && child.getAnimation() == null && child.getMatrix().isIdentity()) {
+            return isDrawCulled(child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (mDrawCullingEnable && isDrawCulled(child)) {
+            mDrawCulledCount++;
+            return false;
+        }
+        return super.drawChild(canvas, child, drawingTime);
+    }
+    //end:draw culling
+
     @Override
     public void setClipToPadding(boolean clipToPadding) {
         if (clipToPadding != mClipToPadding) {
@@ -442,6 +839,7 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
         mContentWidth = contentWidth;
         mContentHeight = contentHeight;
         mMeasureState |= measureState;
+        mHorizontalScrollRange = mVerticalScrollRange = -1;
     }
 
     /**
@@ -531,10 +929,27 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
     public void setDrawerDecoration(DrawerDecoration drawerDecoration) {
         if (mDrawerDecoration != drawerDecoration) {
             mDrawerDecoration = drawerDecoration;
+            mItemStore.invalidateInsets();
             requestLayoutIfNeed();
         }
     }
 
+    /**
+     * item offsets of {@link DrawerDecoration} are cached by item position until item count changed,
+     * call this when the decoration would give different offsets for the same position.
+     */
+    public void invalidateItemDecorations() {
+        mItemStore.invalidateInsets();
+        requestLayoutIfNeed();
+    }
+
+    /**
+     * per item state indexed by item position,updated by {@link LayoutParams#measure(View, int, int, int)}.
+     */
+    public ItemStore getItemStore() {
+        return mItemStore;
+    }
+
     /**
      * set hover drawable {@link FloatDrawable}
      *
@@ -582,14 +997,33 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
     public void removeAllViewsInLayout() {
         super.removeAllViewsInLayout();
         mAttachLayout = false;
-        mVirtualCount = 0;
+        mVirtualTableDirty = true;
+        mSelfLayoutRequested = true;
+        mLayoutGeneration++;
+    }
+
+    @Override
+    public void onViewAdded(View child) {
+        super.onViewAdded(child);
+        mVirtualTableDirty = true;
+        mSelfLayoutRequested = true;
+        mLayoutGeneration++;
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        mVirtualTableDirty = true;
+        mSelfLayoutRequested = true;
+        mLayoutGeneration++;
     }
 
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
         mAttachLayout = false;
-        mVirtualCount = 0;
+        mVirtualTableDirty = true;
+        mMeasureCacheCount = 0;
         if (mBorderDivider != null) {
             mBorderDivider.setCallback(this);
         }
@@ -599,7 +1033,7 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         mAttachLayout = false;
-        mVirtualCount = 0;
+        mVirtualTableDirty = true;
         if (mBorderDivider != null) {
             mBorderDivider.setCallback(null);
         }
@@ -650,9 +1084,26 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
 
     @Override
     protected final void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        mTimeMeasureStart = System.currentTimeMillis();
-        mVirtualCount = 0;
+        mTimeMeasureStart = System.nanoTime();
+        if (mMeasureCacheEnable && applyMeasureCache(widthMeasureSpec, heightMeasureSpec)) {
+            long measureCost = System.nanoTime() - mTimeMeasureStart;
+            mLayoutMetrics.record(LayoutMetrics.PHASE_MEASURE, measureCost);
+            if (!trace(LayoutTrace.EVENT_MEASURE, LayoutTrace.PHASE_MEASURE, (int) (measureCost / 1000), getMeasuredWidth(), getMeasuredHeight(), 1) && isDevLogAccess()) {
+                printDev("MLD", String.format("measure cache hit: [width=%d,height=%d]", getMeasuredWidth(), getMeasuredHeight()));
+            }
+            return;
+        }
+        measureContent(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    private void measureContent(int widthMeasureSpec, int heightMeasureSpec) {
+        final int originalWidthSpec = widthMeasureSpec, originalHeightSpec = heightMeasureSpec;
+        mDispatchedWidthSpec = widthMeasureSpec;
+        mDispatchedHeightSpec = heightMeasureSpec;
+        mMeasureBeforeLayout = false;
+        mVirtualTableDirty = true;
         mContentWidth = mContentHeight = mMeasureState = 0;
+        mHorizontalScrollRange = mVerticalScrollRange = -1;
         if (mWidthPercent > 0) {
             widthMeasureSpec = MeasureSpec.makeMeasureSpec((int) (mWidthPercent * MeasureSpec.getSize(widthMeasureSpec)), MeasureSpec.EXACTLY);
         }
@@ -686,12 +1137,47 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
         computeVisibleBounds(getScrollX(), getScrollY(), false, false);
         mVisibleContentBounds.offset(1, 1);
         doAfterMeasure(measuredWidth, measuredHeight, contentWidth, contentHeight);
-        mLastMeasureCost = System.currentTimeMillis() - mTimeMeasureStart;
-        if (isDevLogAccess()) {
-            printDev("MLD", String.format("measure cost %d ms: [width=%d,height=%d],[contentW=%d,contentH=%d]", mLastMeasureCost, measuredWidth, measuredHeight, contentWidth, contentHeight));
+        if (mMeasureCacheEnable) {
+            storeMeasureCache(originalWidthSpec, originalHeightSpec);
+        }
+        long measureCost = System.nanoTime() - mTimeMeasureStart;
+        mLayoutMetrics.record(LayoutMetrics.PHASE_MEASURE, measureCost);
+        if (!trace(LayoutTrace.EVENT_MEASURE, LayoutTrace.PHASE_MEASURE, (int) (measureCost / 1000), measuredWidth, measuredHeight, 0) && isDevLogAccess()) {
+            printDev("MLD", String.format("measure cost %.3f ms: [width=%d,height=%d],[contentW=%d,contentH=%d]", measureCost / 1000000f, measuredWidth, measuredHeight, contentWidth, contentHeight));
         }
     }
 
+    /**
+     * update decoration insets of an item position into {@link #mItemStore}.
+     */
+    private void updateItemInset(View child, int position) {
+        int itemCount = getItemCountForDecoration();
+        if (mItemOffsetItemCount != itemCount) {
+            mItemOffsetItemCount = itemCount;
+            mItemStore.invalidateInsets();
+            mItemStore.ensureCapacity(itemCount);
+        }
+        if (!mItemStore.isInsetsValid(position)) {
+            Rect insets = mItemInsetTemp;
+            insets.setEmpty();
+            if (mDrawerDecoration != null) {
+                mDrawerDecoration.getItemOffsets(insets, child, position, this);
+            }
+            mItemStore.setInsets(position, insets.left, insets.top, insets.right, insets.bottom);
+        }
+    }
+
+    /**
+     * count of item positions decoration insets are cached for,cached insets are dropped when it changes.
+     * subclass attaching only part of its items should return the count of all of them rather than attached ones.
+     */
+    protected int getItemCountForDecoration() {
+        return getItemViewCount();
+    }
+
+    /**
+     * decoration insets of view without item position such as header and footer,they are never cached.
+     */
     private void updateItemInset(View child, Rect outRect, int position) {
         if (mDrawerDecoration != null) {
             mDrawerDecoration.getItemOffsets(outRect, child, position, this);
@@ -718,7 +1204,12 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
 
     @Override
     protected final void onLayout(boolean changed, int l, int t, int r, int b) {
-        mTimeLayoutStart = System.currentTimeMillis();
+        if (mMeasureBeforeLayout) {
+            //measure result is from cache but children were measured with other MeasureSpec after it.
+            mTimeMeasureStart = System.nanoTime();
+            measureContent(mMeasureCacheHitWidthSpec, mMeasureCacheHitHeightSpec);
+        }
+        mTimeLayoutStart = System.nanoTime();
         boolean firstAttachLayout = false;
         if (!mAttachLayout) {
             firstAttachLayout = mAttachLayout = true;
@@ -728,9 +1219,11 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
             computeVisibleBounds(getScrollX(), getScrollY(), false, true);
         }
         doAfterLayout(firstAttachLayout);
-        mLastLayoutCost = System.currentTimeMillis() - mTimeLayoutStart;
-        if (isDevLogAccess()) {
-            printDev("MLD", String.format("layout cost %d ms: firstAttachLayout=%s", mLastLayoutCost, firstAttachLayout));
+        mSelfLayoutRequested = false;
+        long layoutCost = System.nanoTime() - mTimeLayoutStart;
+        mLayoutMetrics.record(LayoutMetrics.PHASE_LAYOUT, layoutCost);
+        if (!trace(LayoutTrace.EVENT_LAYOUT, LayoutTrace.PHASE_LAYOUT, (int) (layoutCost / 1000), firstAttachLayout ? 1 : 0, mContentWidth, mContentHeight) && isDevLogAccess()) {
+            printDev("MLD", String.format("layout cost %.3f ms: firstAttachLayout=%s", layoutCost / 1000000f, firstAttachLayout));
         }
     }
 
@@ -747,18 +1240,30 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
 
     @Override
     public final void dispatchDraw(Canvas canvas) {
-        mTimeDrawStart = System.currentTimeMillis();
+        mTimeDrawStart = System.nanoTime();
+        mDrawCulledCount = 0;
+        if (mDrawCullingEnable) {
+            computeDrawCullingBounds();
+        }
         doBeforeDraw(canvas, mContentInset);
+        if (mDrawerDecoration != null) {
+            mDrawerDecoration.onDraw(canvas, this);
+        }
         super.dispatchDraw(canvas);
         doAfterDraw(canvas, mContentInset);
+        if (mDrawerDecoration != null) {
+            mDrawerDecoration.onDrawOver(canvas, this);
+        }
+        mLastDrawCulledCount = mDrawCulledCount;
         mBorderDivider.drawBorder(canvas, getWidth(), getHeight());
         if (mForegroundDrawable != null) {
             mForegroundDrawable.setBounds(0, 0, getWidth(), getHeight());
             mForegroundDrawable.draw(canvas);
         }
-        mLastDrawCost = System.currentTimeMillis() - mTimeDrawStart;
-        if (isDevLogAccess()) {
-            printDev("MLD", String.format("draw cost %d ms", mLastDrawCost));
+        long drawCost = System.nanoTime() - mTimeDrawStart;
+        mLayoutMetrics.record(LayoutMetrics.PHASE_DRAW, drawCost);
+        if (!trace(LayoutTrace.EVENT_DRAW, LayoutTrace.PHASE_DRAW, (int) (drawCost / 1000), getWidth(), getHeight(), mLastDrawCulledCount) && isDevLogAccess()) {
+            printDev("MLD", String.format("draw cost %.3f ms", drawCost / 1000000f));
         }
     }
 
@@ -869,12 +1374,17 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
         int beforeHash = mVisibleContentBounds.hashCode(), width = apply ? getWidth() : 0, height = apply ? getHeight() : 0;
         if (width <= 0) width = getMeasuredWidth();
         if (height <= 0) height = getMeasuredHeight();
+        final int beforeWidth = mVisibleContentBounds.width(), beforeHeight = mVisibleContentBounds.height();
         mVisibleContentBounds.left = getPaddingLeft() + scrollX;
         mVisibleContentBounds.top = getPaddingTop() + scrollY;
         mVisibleContentBounds.right = mVisibleContentBounds.left + width - getPaddingLeft() - getPaddingRight();
         mVisibleContentBounds.bottom = mVisibleContentBounds.top + height - getPaddingTop() - getPaddingBottom();
+        if (beforeWidth != mVisibleContentBounds.width() || beforeHeight != mVisibleContentBounds.height()) {
+            mHorizontalScrollRange = mVerticalScrollRange = -1;
+        }
         if (apply && beforeHash != mVisibleContentBounds.hashCode()) {
-            if (isDevLogAccess()) {
+            if (!trace(LayoutTrace.EVENT_SCROLL, scrollChanged ? LayoutTrace.PHASE_SCROLL : LayoutTrace.PHASE_LAYOUT
+                    , scrollX, scrollY, mVisibleContentBounds.width(), mVisibleContentBounds.height()) && isDevLogAccess()) {
                 StringBuilder sb = new StringBuilder(32);
                 sb.append("scrollX=").append(scrollX);
                 sb.append(",scrollY=").append(scrollY).append(",visibleBounds=").append(mVisibleContentBounds);
@@ -901,7 +1411,44 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
     //end: touch gesture
 
     // start: tool function
+
+    /**
+     * mark virtual index table dirty,subclass should call it when the result of {@link #skipVirtualChild(View, boolean)} changed
+     * without a layout request.
+     */
+    protected void invalidateVirtualIndexTable() {
+        mVirtualTableDirty = true;
+    }
+
+    private void ensureVirtualIndexTable() {
+        final int count = getChildCount();
+        if (mVirtualTableDirty || mVirtualTableChildCount != count) {
+            if (mChildToVirtual == null || mChildToVirtual.length < count) {
+                int capacity = Math.max(8, count + (count >> 1));
+                mChildToVirtual = new int[capacity];
+                mVirtualToChild = new int[capacity];
+            }
+            int virtualCount = 0;
+            for (int i = 0; i < count; i++) {
+                final View child = getChildAt(i);
+                if (skipVirtualChild(child, true)) {
+                    mChildToVirtual[i] = -1;
+                } else {
+                    mChildToVirtual[i] = virtualCount;
+                    mVirtualToChild[virtualCount++] = i;
+                }
+            }
+            mVirtualCount = virtualCount;
+            mVirtualTableChildCount = count;
+            mVirtualTableDirty = false;
+        }
+    }
+
     protected final View getVirtualChildAt(int virtualIndex, boolean withoutGone) {
+        if (withoutGone) {
+            ensureVirtualIndexTable();
+            return virtualIndex >= 0 && virtualIndex < mVirtualCount ? getChildAt(mVirtualToChild[virtualIndex]) : null;
+        }
         int virtualCount = 0;
         final int count = getChildCount();
         for (int i = 0; i < count; i++) {
@@ -916,6 +1463,10 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
     }
 
     protected final int getVirtualChildCount(boolean withoutGone) {
+        if (withoutGone) {
+            ensureVirtualIndexTable();
+            return mVirtualCount;
+        }
         int virtualCount = 0;
         final int count = getChildCount();
         for (int i = 0; i < count; i++) {
@@ -926,35 +1477,48 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
         return virtualCount;
     }
 
+    /**
+     * get item position of a child index
+     *
+     * @return -1 if the child at childIndex is not a item view.
+     */
+    protected final int getVirtualIndexOfChild(int childIndex) {
+        ensureVirtualIndexTable();
+        return childIndex >= 0 && childIndex < mVirtualTableChildCount ? mChildToVirtual[childIndex] : -1;
+    }
+
+    /**
+     * get child index of a item position
+     *
+     * @return -1 if itemIndex is out of range
+     */
+    protected final int getChildIndexOfVirtual(int itemIndex) {
+        ensureVirtualIndexTable();
+        return itemIndex >= 0 && itemIndex < mVirtualCount ? mVirtualToChild[itemIndex] : -1;
+    }
+
     public final int getItemViewCount() {
-        int itemCount = mVirtualCount;
-        if (itemCount == 0) {
-            itemCount = mVirtualCount = getVirtualChildCount(true);
-        }
-        return itemCount;
+        ensureVirtualIndexTable();
+        return mVirtualCount;
     }
 
     public final View getItemView(int itemIndex) {
-        View result = null;
-        int itemCount = getItemViewCount();
-        if (itemIndex >= 0 && itemIndex < itemCount) {
-            result = getVirtualChildAt(itemIndex, true);
-        }
-        return result;
+        return getVirtualChildAt(itemIndex, true);
     }
 
     public final int indexOfItemView(View view) {
-        if (view != null) {
-            int virtualIndex = 0;
-            final int count = getChildCount();
-            for (int i = 0; i < count; i++) {
-                final View child = getChildAt(i);
-                if (skipVirtualChild(child, true)) continue;
-                if (view == child) {
-                    return virtualIndex;
+        if (view != null && view.getParent() == this) {
+            ensureVirtualIndexTable();
+            ViewGroup.LayoutParams params = view.getLayoutParams();
+            if (params instanceof LayoutParams) {
+                //position is the item position used when measured,verify it before use.
+                int position = ((LayoutParams) params).position();
+                if (position >= 0 && position < mVirtualCount && getChildAt(mVirtualToChild[position]) == view) {
+                    return position;
                 }
-                virtualIndex++;
             }
+            int childIndex = indexOfChild(view);
+            return childIndex >= 0 && childIndex < mVirtualTableChildCount ? mChildToVirtual[childIndex] : -1;
         }
         return -1;
     }
@@ -1089,6 +1653,9 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
      * get max scroll range at direction vertical
      */
     protected int getVerticalScrollRange() {
+        if (mVerticalScrollRange >= 0) {
+            return mVerticalScrollRange;
+        }
         int scrollRange = 0, contentSize = getContentHeight();
         if (contentSize > 0) {
             scrollRange = contentSize - mVisibleContentBounds.height();
@@ -1096,7 +1663,7 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
                 scrollRange = 0;
             }
         }
-        return scrollRange;
+        return mVerticalScrollRange = scrollRange;
     }
 
     @Override
@@ -1146,6 +1713,9 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
      * get max scroll range at direction horizontal
      */
     protected int getHorizontalScrollRange() {
+        if (mHorizontalScrollRange >= 0) {
+            return mHorizontalScrollRange;
+        }
         int scrollRange = 0, contentSize = getContentWidth();
         if (contentSize > 0) {
             scrollRange = contentSize - mVisibleContentBounds.width();
@@ -1153,7 +1723,7 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
                 scrollRange = 0;
             }
         }
-        return scrollRange;
+        return mHorizontalScrollRange = scrollRange;
     }
 
     @Override
@@ -1180,7 +1750,14 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
         float mWidthPercent = 0;
         float mHeightPercent = 0;
 
-        private Rect mInsets = new Rect();
+        /**
+         * insets and extent of item view are kept in parent's {@link ItemStore} at index {@link #mPosition}.
+         */
+        private ItemStore mStore;
+        /**
+         * insets of view measured without item position,created only when it has a decoration.
+         */
+        private Rect mInsets;
 
         public LayoutParams(Context c, AttributeSet attrs) {
             super(c, attrs);
@@ -1229,34 +1806,67 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
             return mPosition;
         }
 
+        private int inset(int side) {
+            if (mStore != null) {
+                return mStore.getInset(mPosition, side);
+            }
+            if (mInsets == null) {
+                return 0;
+            }
+            switch (side) {
+                case ItemStore.INSET_LEFT:
+                    return mInsets.left;
+                case ItemStore.INSET_TOP:
+                    return mInsets.top;
+                case ItemStore.INSET_RIGHT:
+                    return mInsets.right;
+                default:
+                    return mInsets.bottom;
+            }
+        }
+
+        private int insetHorizontal() {
+            if (mStore != null) {
+                return mStore.getInsetHorizontal(mPosition);
+            }
+            return mInsets == null ? 0 : (mInsets.left + mInsets.right);
+        }
+
+        private int insetVertical() {
+            if (mStore != null) {
+                return mStore.getInsetVertical(mPosition);
+            }
+            return mInsets == null ? 0 : (mInsets.top + mInsets.bottom);
+        }
+
         /**
          * get view width include its margin and inset width
          */
         public int width(View view) {
-            return view.getMeasuredWidth() + leftMargin + rightMargin + mInsets.left + mInsets.right;
+            return view.getMeasuredWidth() + leftMargin + rightMargin + insetHorizontal();
         }
 
         /**
          * get view height include its margin and inset width
          */
         public int height(View view) {
-            return view.getMeasuredHeight() + topMargin + bottomMargin + mInsets.top + mInsets.bottom;
+            return view.getMeasuredHeight() + topMargin + bottomMargin + insetVertical();
         }
 
         public int leftMargin() {
-            return leftMargin + mInsets.left;
+            return leftMargin + inset(ItemStore.INSET_LEFT);
         }
 
         public int topMargin() {
-            return topMargin + mInsets.top;
+            return topMargin + inset(ItemStore.INSET_TOP);
         }
 
         public int rightMargin() {
-            return rightMargin + mInsets.right;
+            return rightMargin + inset(ItemStore.INSET_RIGHT);
         }
 
         public int bottomMargin() {
-            return bottomMargin + mInsets.bottom;
+            return bottomMargin + inset(ItemStore.INSET_BOTTOM);
         }
 
         /**
@@ -1264,10 +1874,30 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
          * subclass of BaseViewGroup should aways use this measure function to apply extra property such as maxWidth,maxHeight,layout_gravity
          */
         public void measure(View child, int itemPosition, int childWidthMeasureSpec, int childHeightMeasureSpec) {
+            measure(child.getParent() instanceof BaseViewGroup ? (BaseViewGroup) child.getParent() : null
+                    , child, itemPosition, childWidthMeasureSpec, childHeightMeasureSpec);
+        }
+
+        /**
+         * measure child for a given parent,decoration insets and item store of the parent are applied
+         * even if the child is not attached yet,such as an item view prefetched before it's added.
+         */
+        public void measure(BaseViewGroup parent, View child, int itemPosition, int childWidthMeasureSpec, int childHeightMeasureSpec) {
             mPosition = itemPosition;
-            mInsets.setEmpty();
-            if (child.getParent() instanceof BaseViewGroup) {
-                ((BaseViewGroup) child.getParent()).updateItemInset(child, mInsets, mPosition);
+            mStore = null;
+            if (mInsets != null) {
+                mInsets.setEmpty();
+            }
+            if (parent != null) {
+                if (itemPosition >= 0) {
+                    parent.updateItemInset(child, itemPosition);
+                    mStore = parent.mItemStore;
+                } else if (parent.mDrawerDecoration != null) {
+                    if (mInsets == null) {
+                        mInsets = new Rect();
+                    }
+                    parent.updateItemInset(child, mInsets, itemPosition);
+                }
             }
             if (!(child instanceof BaseViewGroup)) {
                 if (mWidthPercent > 0) {
@@ -1277,11 +1907,14 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
                     childHeightMeasureSpec=MeasureSpec.makeMeasureSpec((int) (MeasureSpec.getSize(childHeightMeasureSpec)*mHeightPercent),MeasureSpec.EXACTLY);
                 }
             }
-            int marginInsetH = mInsets.left + mInsets.right + leftMargin + rightMargin;
-            int marginInsetV = mInsets.top + mInsets.bottom + topMargin + bottomMargin;
+            int marginInsetH = insetHorizontal() + leftMargin + rightMargin;
+            int marginInsetV = insetVertical() + topMargin + bottomMargin;
             childWidthMeasureSpec = limitMeasureSpec(childWidthMeasureSpec, maxWidth, marginInsetH, width == -1);
             childHeightMeasureSpec = limitMeasureSpec(childHeightMeasureSpec, maxHeight, marginInsetV, height == -1);
             child.measure(childWidthMeasureSpec, childHeightMeasureSpec);
+            if (mStore != null) {
+                mStore.setExtent(mPosition, child.getMeasuredWidth() + marginInsetH, child.getMeasuredHeight() + marginInsetV);
+            }
         }
 
         /**
@@ -1294,6 +1927,15 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
                     , BaseViewGroup.getChildMeasureSpec(parentHeightMeasureSpec, heightUsed, height));
         }
 
+        /**
+         * measure child from parent MeasureSpec for a given parent,see {@link #measure(BaseViewGroup, View, int, int, int)}
+         */
+        public void measure(BaseViewGroup parent, View view, int itemPosition, int parentWidthMeasureSpec, int parentHeightMeasureSpec, int widthUsed, int heightUsed) {
+            measure(parent, view, itemPosition
+                    , BaseViewGroup.getChildMeasureSpec(parentWidthMeasureSpec, widthUsed, width)
+                    , BaseViewGroup.getChildMeasureSpec(parentHeightMeasureSpec, heightUsed, height));
+        }
+
         private int limitMeasureSpec(int measureSpec, int maxSize, int used, boolean mostToExactly) {
             int size = MeasureSpec.getSize(measureSpec) - used;
             int mode = MeasureSpec.getMode(measureSpec);
@@ -1328,9 +1970,15 @@ public abstract class BaseViewGroup extends ViewGroup implements BorderDivider.C
      * beyond that it can draw something on the canvas in this canvas coordinate
      */
     public static abstract class DrawerDecoration {
+        /**
+         * draw under children,use {@link BaseViewGroup#isDrawCulled(View)} to skip off-screen items.
+         */
         public void onDraw(Canvas c, BaseViewGroup parent) {
         }
 
+        /**
+         * draw over children,use {@link BaseViewGroup#isDrawCulled(View)} to skip off-screen items.
+         */
         public void onDrawOver(Canvas c, BaseViewGroup parent) {
         }
 
@@ -146,6 +146,8 @@ public class BorderDivider {
     private int mDividerPaddingVerticalEnd = 0;
 
     private Callback mCallback;
+    private int mBatchUpdateDepth = 0;
+    private boolean mBatchLayoutPending, mBatchInvalidatePending;
 
     private BorderDivider(float density) {
         mDensity = density;
@@ -183,45 +185,35 @@ public class BorderDivider {
     public void setBorderLeft(Drawable borderLeft) {
         if (mBorderLeft != borderLeft) {
             mBorderLeft = borderLeft;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderLeftColor(int color) {
         if (mBorderLeftColor != color) {
             mBorderLeftColor = color;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderLeftWidth(int width) {
         if (mBorderLeftWidth != width) {
             mBorderLeftWidth = width;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderLeftMarginStart(int marginStart) {
         if (mBorderLeftMarginStart != marginStart) {
             mBorderLeftMarginStart = marginStart;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderLeftMarginEnd(int marginEnd) {
         if (mBorderLeftMarginEnd != marginEnd) {
             mBorderLeftMarginEnd = marginEnd;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
@@ -229,45 +221,35 @@ public class BorderDivider {
     public void setBorderTop(Drawable borderTop) {
         if (mBorderTop != borderTop) {
             mBorderTop = borderTop;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderTopColor(int color) {
         if (mBorderTopColor != color) {
             mBorderTopColor = color;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderTopWidth(int width) {
         if (mBorderTopWidth != width) {
             mBorderTopWidth = width;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderTopMarginStart(int marginStart) {
         if (mBorderTopMarginStart != marginStart) {
             mBorderTopMarginStart = marginStart;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderTopMarginEnd(int marginEnd) {
         if (mBorderTopMarginEnd != marginEnd) {
             mBorderTopMarginEnd = marginEnd;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
@@ -275,45 +257,35 @@ public class BorderDivider {
     public void setBorderRight(Drawable borderRight) {
         if (mBorderRight != borderRight) {
             mBorderRight = borderRight;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderRightColor(int color) {
         if (mBorderRightColor != color) {
             mBorderRightColor = color;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderRightWidth(int width) {
         if (mBorderRightWidth != width) {
             mBorderRightWidth = width;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderRightMarginStart(int marginStart) {
         if (mBorderRightMarginStart != marginStart) {
             mBorderRightMarginStart = marginStart;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderRightMarginEnd(int marginEnd) {
         if (mBorderRightMarginEnd != marginEnd) {
             mBorderRightMarginEnd = marginEnd;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
@@ -321,45 +293,35 @@ public class BorderDivider {
     public void setBorderBottom(Drawable borderBottom) {
         if (mBorderBottom != borderBottom) {
             mBorderBottom = borderBottom;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderBottomColor(int color) {
         if (mBorderBottomColor != color) {
             mBorderBottomColor = color;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderBottomWidth(int width) {
         if (mBorderBottomWidth != width) {
             mBorderBottomWidth = width;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderBottomMarginStart(int marginStart) {
         if (mBorderBottomMarginStart != marginStart) {
             mBorderBottomMarginStart = marginStart;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setBorderBottomMarginEnd(int marginEnd) {
         if (mBorderBottomMarginEnd != marginEnd) {
             mBorderBottomMarginEnd = marginEnd;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
@@ -368,36 +330,28 @@ public class BorderDivider {
     public void setContentMarginLeft(int contentMarginLeft) {
         if (mContentMarginLeft != contentMarginLeft) {
             mContentMarginLeft = contentMarginLeft;
-            if (mCallback != null) {
-                mCallback.requestLayout();
-            }
+            notifyRequestLayout();
         }
     }
 
     public void setContentMarginTop(int contentMarginTop) {
         if (mContentMarginTop != contentMarginTop) {
             mContentMarginTop = contentMarginTop;
-            if (mCallback != null) {
-                mCallback.requestLayout();
-            }
+            notifyRequestLayout();
         }
     }
 
     public void setContentMarginRight(int contentMarginRight) {
         if (mContentMarginRight != contentMarginRight) {
             mContentMarginRight = contentMarginRight;
-            if (mCallback != null) {
-                mCallback.requestLayout();
-            }
+            notifyRequestLayout();
         }
     }
 
     public void setContentMarginBottom(int contentMarginBottom) {
         if (mContentMarginBottom != contentMarginBottom) {
             mContentMarginBottom = contentMarginBottom;
-            if (mCallback != null) {
-                mCallback.requestLayout();
-            }
+            notifyRequestLayout();
         }
     }
 
@@ -405,18 +359,14 @@ public class BorderDivider {
     public void setContentMarginHorizontal(int contentMarginHorizontal) {
         if (mContentMarginHorizontal != contentMarginHorizontal) {
             mContentMarginHorizontal = contentMarginHorizontal;
-            if (mCallback != null) {
-                mCallback.requestLayout();
-            }
+            notifyRequestLayout();
         }
     }
 
     public void setContentMarginVertical(int contentMarginVertical) {
         if (mContentMarginVertical != contentMarginVertical) {
             mContentMarginVertical = contentMarginVertical;
-            if (mCallback != null) {
-                mCallback.requestLayout();
-            }
+            notifyRequestLayout();
         }
     }
 
@@ -425,9 +375,7 @@ public class BorderDivider {
     public void setDividerDrawableVertical(Drawable drawableVertical) {
         if (mDividerVertical != drawableVertical) {
             mDividerVertical = drawableVertical;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
@@ -435,9 +383,7 @@ public class BorderDivider {
         if (mDividerColorVertical != color) {
             mDividerColorVertical = color;
             mResetPaintVertical = true;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
@@ -445,27 +391,21 @@ public class BorderDivider {
         if (mDividerWidthVertical != width) {
             mDividerWidthVertical = width;
             mResetPaintVertical = true;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setDividerPaddingVerticalStart(int paddingStart) {
         if (mDividerPaddingVerticalStart != paddingStart) {
             mDividerPaddingVerticalStart = paddingStart;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setDividerPaddingVerticalEnd(int paddingEnd) {
         if (mDividerPaddingVerticalEnd != paddingEnd) {
             mDividerPaddingVerticalEnd = paddingEnd;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
@@ -473,9 +413,7 @@ public class BorderDivider {
     public void setDividerDrawableHorizontal(Drawable drawableHorizontal) {
         if (mDividerHorizontal != drawableHorizontal) {
             mDividerHorizontal = drawableHorizontal;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
@@ -483,9 +421,7 @@ public class BorderDivider {
         if (mDividerColorHorizontal != color) {
             mDividerColorHorizontal = color;
             mResetPaintHorizontal = true;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
@@ -493,27 +429,21 @@ public class BorderDivider {
         if (mDividerWidthHorizontal != width) {
             mDividerWidthHorizontal = width;
             mResetPaintHorizontal = true;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setDividerPaddingHorizontalStart(int paddingStart) {
         if (mDividerPaddingHorizontalStart != paddingStart) {
             mDividerPaddingHorizontalStart = paddingStart;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
     public void setDividerPaddingHorizontalEnd(int paddingEnd) {
         if (mDividerPaddingHorizontalEnd != paddingEnd) {
             mDividerPaddingHorizontalEnd = paddingEnd;
-            if (mCallback != null) {
-                mCallback.invalidate();
-            }
+            notifyInvalidate();
         }
     }
 
@@ -889,6 +819,49 @@ public class BorderDivider {
         mCallback = callback;
     }
 
+    /**
+     * start a batch update,invalidate and requestLayout caused by setters are deferred
+     * until the outermost {@link #endBatchUpdate()} and collapsed into at most one of each.
+     */
+    public void beginBatchUpdate() {
+        mBatchUpdateDepth++;
+    }
+
+    public void endBatchUpdate() {
+        if (mBatchUpdateDepth > 0 && --mBatchUpdateDepth == 0) {
+            boolean layoutPending = mBatchLayoutPending, invalidatePending = mBatchInvalidatePending;
+            mBatchLayoutPending = mBatchInvalidatePending = false;
+            if (mCallback != null) {
+                if (layoutPending) {
+                    mCallback.requestLayout();
+                }
+                if (invalidatePending) {
+                    mCallback.invalidate();
+                }
+            }
+        }
+    }
+
+    public boolean isBatchUpdating() {
+        return mBatchUpdateDepth > 0;
+    }
+
+    private void notifyInvalidate() {
+        if (mBatchUpdateDepth > 0) {
+            mBatchInvalidatePending = true;
+        } else if (mCallback != null) {
+            mCallback.invalidate();
+        }
+    }
+
+    private void notifyRequestLayout() {
+        if (mBatchUpdateDepth > 0) {
+            mBatchLayoutPending = true;
+        } else if (mCallback != null) {
+            mCallback.requestLayout();
+        }
+    }
+
     interface Callback {
         void requestLayout();
 
@@ -6,7 +6,6 @@ import android.graphics.Canvas;
 import android.graphics.Rect;
 import android.util.AttributeSet;
 import android.util.SparseBooleanArray;
-import android.util.SparseIntArray;
 import android.view.Gravity;
 import android.view.View;
 
@@ -66,8 +65,12 @@ public class ColumnLayout extends BaseViewGroup {
     private boolean mAlignCenterAllColumns;
     private boolean mAlignRightAllColumns;
     private int mColumnWidth;
-    private SparseIntArray mLineHeight = new SparseIntArray(2);
-    private SparseIntArray mLineLastIndex = new SparseIntArray(2);
+    /**
+     * height and last child index of each line,valid in [0,mLineCount).
+     */
+    private int[] mLineHeight = new int[4];
+    private int[] mLineLastIndex = new int[4];
+    private int mLineCount = 0;
 
     public ColumnLayout(Context context) {
         super(context);
@@ -170,8 +173,17 @@ public class ColumnLayout extends BaseViewGroup {
     }
 
     private void adjustMeasureAndSave(int lineIndex, int endIndex, int columnHeight, int columnCount) {
-        mLineHeight.put(lineIndex, columnHeight);
-        mLineLastIndex.put(lineIndex, endIndex);
+        if (lineIndex >= mLineHeight.length) {
+            int capacity = Math.max(lineIndex + 1, mLineHeight.length << 1);
+            int[] lineHeight = new int[capacity], lineLastIndex = new int[capacity];
+            System.arraycopy(mLineHeight, 0, lineHeight, 0, mLineHeight.length);
+            System.arraycopy(mLineLastIndex, 0, lineLastIndex, 0, mLineLastIndex.length);
+            mLineHeight = lineHeight;
+            mLineLastIndex = lineLastIndex;
+        }
+        mLineHeight[lineIndex] = columnHeight;
+        mLineLastIndex[lineIndex] = endIndex;
+        mLineCount = Math.max(mLineCount, lineIndex + 1);
         for (int columnIndex = columnCount - 1; columnIndex >= 0 && endIndex >= 0; endIndex--) {
             final View child = getChildAt(endIndex);
             if (skipChild(child)) continue;
@@ -195,7 +207,7 @@ public class ColumnLayout extends BaseViewGroup {
         final int middleMarginHorizontal = mBorderDivider.getContentMarginHorizontal();
         final int middleMarginVertical = mBorderDivider.getContentMarginVertical();
 
-        mLineHeight.clear();
+        mLineCount = 0;
         mColumnWidth = computeColumnWidth(MeasureSpec.getSize(widthMeasureSpecContent), middleMarginHorizontal, columnCount);
         int heightMeasureSpec = heightMeasureSpecContent;
         int widthMeasureSpec = MeasureSpec.makeMeasureSpec(mColumnWidth, MeasureSpec.getMode(widthMeasureSpecContent));
@@ -251,7 +263,7 @@ public class ColumnLayout extends BaseViewGroup {
 
     @Override
     protected void dispatchLayout(int contentLeft, int contentTop) {
-        final int lineCount = mLineHeight.size();
+        final int lineCount = mLineCount;
         final int columnWidth = mColumnWidth;
         final int middleMarginHorizontal = mBorderDivider.getContentMarginHorizontal();
         final int middleMarginVertical = mBorderDivider.getContentMarginVertical();
@@ -259,9 +271,9 @@ public class ColumnLayout extends BaseViewGroup {
         int columnLeft, columnTop = contentTop, columnRight, columnBottom;
         for (int lineIndex = 0; lineIndex < lineCount; lineIndex++) {
             columnIndex = 0;
-            childLastIndex = mLineLastIndex.get(lineIndex);
+            childLastIndex = mLineLastIndex[lineIndex];
             columnLeft = contentLeft;
-            columnBottom = columnTop + mLineHeight.get(lineIndex);
+            columnBottom = columnTop + mLineHeight[lineIndex];
             for (; childIndex <= childLastIndex; childIndex++) {
                 final View child = getChildAt(childIndex);
                 if (skipChild(child)) continue;
@@ -290,7 +302,7 @@ public class ColumnLayout extends BaseViewGroup {
 
     @Override
     protected void doAfterDraw(Canvas canvas, Rect inset) {
-        final int lineCount = mLineHeight.size();
+        final int lineCount = mLineCount;
         boolean dividerHorizontal = mBorderDivider.isVisibleDividerHorizontal(true) && lineCount > 1;
         boolean dividerVertical = mBorderDivider.isVisibleDividerVertical(true) && mColumnNumber > 1;
         if (dividerHorizontal || dividerVertical) {
@@ -306,9 +318,14 @@ public class ColumnLayout extends BaseViewGroup {
             int halfMiddleVertical = middleMarginVertical > 0 ? (middleMarginVertical / 2) : 0;
             boolean bottomCoincide = false;
             for (int lineIndex = 0; lineIndex < lineCount; lineIndex++) {
-                childLastIndex = mLineLastIndex.get(lineIndex);
+                childLastIndex = mLineLastIndex[lineIndex];
                 columnLeft = contentLeft + contentMarginLeft;
-                columnBottom = columnTop + mLineHeight.get(lineIndex) + halfMiddleVertical;
+                columnBottom = columnTop + mLineHeight[lineIndex] + halfMiddleVertical;
+                if (isDrawCulled(parentLeft, columnTop - halfMiddleVertical, parentRight, columnBottom + halfMiddleVertical)) {
+                    childIndex = childLastIndex + 1;
+                    columnTop = columnBottom + halfMiddleVertical;
+                    continue;
+                }
                 if (dividerHorizontal) {
                     if (lineIndex < lineCount - 1 || (bottomCoincide = (columnBottom + contentMarginBottom) < parentBottom)) {
                         mBorderDivider.drawDividerH(canvas, parentLeft, parentRight, columnBottom);
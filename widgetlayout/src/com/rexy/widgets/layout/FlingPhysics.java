@@ -0,0 +1,274 @@
+package com.rexy.widgets.layout;
+
+import android.content.Context;
+import android.util.SparseArray;
+import android.view.ViewConfiguration;
+
+/**
+ * physics of a fling along its direction,pure math without any time source or scroller instance.
+ * a fling of initial velocity travels {@link #getFlingDistance(float)} in {@link #getFlingDuration(float)},
+ * its trajectory is the normalized curve {@link #getFlingPosition(float)}.
+ * <p>
+ * the normalized curves of built-in physics are lookup tables computed once per class,
+ * constants depend on screen density are computed once per density and shared by {@link Spline#obtain(Context)}
+ * and {@link Deceleration#obtain(Context, float)}.
+ * </p>
+ *
+ * @author: rexy
+ * @see ScrollLayout#setFlingPhysics(FlingPhysics)
+ */
+public interface FlingPhysics {
+    /**
+     * distance in pixels a fling travels,it has the same sign as velocity.
+     *
+     * @param velocity initial velocity in pixels per second.
+     */
+    float getFlingDistance(float velocity);
+
+    /**
+     * duration in milliseconds of a fling.
+     *
+     * @param velocity initial velocity in pixels per second.
+     */
+    int getFlingDuration(float velocity);
+
+    /**
+     * fraction of fling distance traveled at a fraction of fling duration,both in [0,1].
+     */
+    float getFlingPosition(float timeFraction);
+
+    /**
+     * derivative of {@link #getFlingPosition(float)} at a fraction of fling duration,
+     * current velocity is distance*this/duration.
+     */
+    float getFlingVelocity(float timeFraction);
+
+    /**
+     * normalized curve sampled in a table and interpolated linearly.
+     */
+    abstract class TableFlingPhysics implements FlingPhysics {
+        static final int NB_SAMPLES = 100;
+
+        /**
+         * @return position table of {@link #NB_SAMPLES}+1 samples from 0 to 1.
+         */
+        abstract float[] getPositionTable();
+
+        @Override
+        public float getFlingPosition(float timeFraction) {
+            final float[] table = getPositionTable();
+            if (timeFraction >= 1) {
+                return 1;
+            }
+            if (timeFraction <= 0) {
+                return 0;
+            }
+            final int index = (int) (NB_SAMPLES * timeFraction);
+            final float tInf = (float) index / NB_SAMPLES;
+            return table[index] + (timeFraction - tInf) * (table[index + 1] - table[index]) * NB_SAMPLES;
+        }
+
+        @Override
+        public float getFlingVelocity(float timeFraction) {
+            final float[] table = getPositionTable();
+            if (timeFraction >= 1 || timeFraction < 0) {
+                return 0;
+            }
+            final int index = (int) (NB_SAMPLES * timeFraction);
+            return (table[index + 1] - table[index]) * NB_SAMPLES;
+        }
+    }
+
+    /**
+     * spline deceleration of android.widget.OverScroller,friction is {@link ViewConfiguration#getScrollFriction()} by default.
+     */
+    class Spline extends TableFlingPhysics {
+        private static final float INFLEXION = 0.35f;
+        private static final float START_TENSION = 0.5f;
+        private static final float END_TENSION = 1.0f;
+        private static final float P1 = START_TENSION * INFLEXION;
+        private static final float P2 = 1.0f - END_TENSION * (1.0f - INFLEXION);
+        private static final float DECELERATION_RATE = (float) (Math.log(0.78) / Math.log(0.9));
+        private static final float GRAVITY_EARTH = 9.80665f;
+        private static final float[] SPLINE_POSITION = new float[NB_SAMPLES + 1];
+        private static final SparseArray<Spline> sDensityCache = new SparseArray<Spline>(2);
+
+        static {
+            float xMin = 0.0f;
+            for (int i = 0; i < NB_SAMPLES; i++) {
+                final float alpha = (float) i / NB_SAMPLES;
+                float xMax = 1.0f, x, tx, coef;
+                while (true) {
+                    x = xMin + (xMax - xMin) / 2.0f;
+                    coef = 3.0f * x * (1.0f - x);
+                    tx = coef * ((1.0f - x) * P1 + x * P2) + x * x * x;
+                    if (Math.abs(tx - alpha) < 1E-5) break;
+                    if (tx > alpha) xMax = x;
+                    else xMin = x;
+                }
+                SPLINE_POSITION[i] = coef * ((1.0f - x) * START_TENSION + x) + x * x * x;
+            }
+            SPLINE_POSITION[NB_SAMPLES] = 1.0f;
+        }
+
+        private final float mFriction;
+        private final float mPhysicalCoeff;
+
+        /**
+         * shared instance of the density of context with default friction.
+         */
+        public static Spline obtain(Context context) {
+            final float density = context.getResources().getDisplayMetrics().density;
+            final int key = (int) (density * 1000);
+            synchronized (sDensityCache) {
+                Spline spline = sDensityCache.get(key);
+                if (spline == null) {
+                    spline = new Spline(density, ViewConfiguration.getScrollFriction());
+                    sDensityCache.put(key, spline);
+                }
+                return spline;
+            }
+        }
+
+        public Spline(float density, float friction) {
+            mFriction = friction;
+            mPhysicalCoeff = GRAVITY_EARTH * 39.37f * (density * 160.0f) * 0.84f;
+        }
+
+        private double getSplineDeceleration(float velocity) {
+            return Math.log(INFLEXION * Math.abs(velocity) / (mFriction * mPhysicalCoeff));
+        }
+
+        @Override
+        public float getFlingDistance(float velocity) {
+            if (velocity == 0) {
+                return 0;
+            }
+            final double decelMinusOne = DECELERATION_RATE - 1.0;
+            double distance = mFriction * mPhysicalCoeff * Math.exp(DECELERATION_RATE / decelMinusOne * getSplineDeceleration(velocity));
+            return (float) (velocity > 0 ? distance : -distance);
+        }
+
+        @Override
+        public int getFlingDuration(float velocity) {
+            if (velocity == 0) {
+                return 0;
+            }
+            final double decelMinusOne = DECELERATION_RATE - 1.0;
+            return (int) (1000.0 * Math.exp(getSplineDeceleration(velocity) / decelMinusOne));
+        }
+
+        @Override
+        float[] getPositionTable() {
+            return SPLINE_POSITION;
+        }
+    }
+
+    /**
+     * critically damped spring,velocity decays as (1+wt)e^(-wt) and it never overshoots.
+     * distance is 2v/w and duration is independent of velocity,so it has no density constant.
+     */
+    class Spring extends TableFlingPhysics {
+        /**
+         * normalized time w*t where the rest distance is below one thousandth.
+         */
+        private static final float TAU_MAX = 9.2f;
+        private static final float[] SPRING_POSITION = new float[NB_SAMPLES + 1];
+
+        static {
+            final double end = 1 - (1 + TAU_MAX / 2) * Math.exp(-TAU_MAX);
+            for (int i = 0; i <= NB_SAMPLES; i++) {
+                final double tau = TAU_MAX * i / NB_SAMPLES;
+                SPRING_POSITION[i] = (float) ((1 - (1 + tau / 2) * Math.exp(-tau)) / end);
+            }
+            SPRING_POSITION[NB_SAMPLES] = 1.0f;
+        }
+
+        private final float mStiffness;
+
+        /**
+         * @param stiffness natural frequency w of the spring in radians per second,bigger is shorter and stiffer.
+         */
+        public Spring(float stiffness) {
+            mStiffness = Math.max(0.1f, stiffness);
+        }
+
+        @Override
+        public float getFlingDistance(float velocity) {
+            return 2 * velocity / mStiffness;
+        }
+
+        @Override
+        public int getFlingDuration(float velocity) {
+            return velocity == 0 ? 0 : (int) (1000 * TAU_MAX / mStiffness);
+        }
+
+        @Override
+        float[] getPositionTable() {
+            return SPRING_POSITION;
+        }
+    }
+
+    /**
+     * constant deceleration given in dp per second squared.
+     */
+    class Deceleration extends TableFlingPhysics {
+        private static final float[] DECELERATION_POSITION = new float[NB_SAMPLES + 1];
+        /**
+         * instances by exact bits of density then of deceleration.
+         */
+        private static final SparseArray<SparseArray<Deceleration>> sDensityCache = new SparseArray<SparseArray<Deceleration>>(2);
+
+        static {
+            for (int i = 0; i <= NB_SAMPLES; i++) {
+                final float u = (float) i / NB_SAMPLES;
+                DECELERATION_POSITION[i] = u * (2 - u);
+            }
+        }
+
+        /**
+         * deceleration in pixels per second squared.
+         */
+        private final float mDeceleration;
+
+        /**
+         * shared instance of the density of context and deceleration.
+         */
+        public static Deceleration obtain(Context context, float decelerationDp) {
+            final float density = context.getResources().getDisplayMetrics().density;
+            final int densityKey = Float.floatToIntBits(density), decelerationKey = Float.floatToIntBits(decelerationDp);
+            synchronized (sDensityCache) {
+                SparseArray<Deceleration> densityCache = sDensityCache.get(densityKey);
+                if (densityCache == null) {
+                    densityCache = new SparseArray<Deceleration>(2);
+                    sDensityCache.put(densityKey, densityCache);
+                }
+                Deceleration deceleration = densityCache.get(decelerationKey);
+                if (deceleration == null) {
+                    deceleration = new Deceleration(density, decelerationDp);
+                    densityCache.put(decelerationKey, deceleration);
+                }
+                return deceleration;
+            }
+        }
+
+        public Deceleration(float density, float decelerationDp) {
+            mDeceleration = Math.max(1, decelerationDp * density);
+        }
+
+        @Override
+        public float getFlingDistance(float velocity) {
+            return velocity * Math.abs(velocity) / (2 * mDeceleration);
+        }
+
+        @Override
+        public int getFlingDuration(float velocity) {
+            return (int) (1000 * Math.abs(velocity) / mDeceleration);
+        }
+
+        @Override
+        float[] getPositionTable() {
+            return DECELERATION_POSITION;
+        }
+    }
+}
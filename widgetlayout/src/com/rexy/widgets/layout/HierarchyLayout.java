@@ -437,7 +437,10 @@ public class HierarchyLayout extends WrapLayout {
         mStringBuilder.delete(0, mStringBuilder.length());
         mStringBuilder.append("层级(").append(mTree.getHierarchyCount()).append(',').append(String.format("%.1f", mTree.getArgHierarchyCount())).append(")").append(',');
         mStringBuilder.append("结点(").append(mTree.getCountOfNode()).append(',').append(mTree.getCountOfViewGroup()).append(',').append(mTree.getCountOfView()).append(")").append(',');
-        mStringBuilder.append("测绘(").append(mLastMeasureCost).append(',').append(mLastLayoutCost).append(',').append(mLastDrawCost).append(")");
+        LayoutMetrics metrics = getLayoutMetrics();
+        mStringBuilder.append("测绘us(").append(metrics.getLastNanos(LayoutMetrics.PHASE_MEASURE) / 1000);
+        mStringBuilder.append(',').append(metrics.getLastNanos(LayoutMetrics.PHASE_LAYOUT) / 1000);
+        mStringBuilder.append(',').append(metrics.getLastNanos(LayoutMetrics.PHASE_DRAW) / 1000).append(")");
         float textHeight = mTreePaint.descent() - mTreePaint.ascent();
         canvas.drawText(mStringBuilder.toString(), textHeight / 2, textHeight, mTreePaint);
     }
@@ -0,0 +1,163 @@
+package com.rexy.widgets.layout;
+
+import java.util.Arrays;
+
+/**
+ * prefix sum index of item extents along a scroll orientation.
+ * known extents are kept in fenwick trees while unknown ones are estimated by the average of the known,
+ * so both the start offset of an item and the item at an offset are found in O(log n) without visiting all items.
+ * <p>
+ * start(i) = sum of extent(j) + gap for j in [0,i),the total size has no gap after the last item.
+ * </p>
+ *
+ * @author: rexy
+ */
+class ItemOffsetIndex {
+    private long[] mKnownSum = new long[1];
+    private int[] mKnownCount = new int[1];
+    /**
+     * raw extent of each item,-1 if unknown.
+     */
+    private int[] mExtent = new int[0];
+    private int mCount = 0;
+    private int mGap = 0;
+    private long mKnownTotal = 0;
+    private int mKnownTotalCount = 0;
+    private int mDefaultExtent = 1;
+
+    /**
+     * forget all extents and resize to count items.
+     */
+    public void reset(int count, int gap) {
+        if (mExtent.length < count) {
+            mExtent = new int[count];
+            mKnownSum = new long[count + 1];
+            mKnownCount = new int[count + 1];
+        } else {
+            Arrays.fill(mKnownSum, 0, count + 1, 0);
+            Arrays.fill(mKnownCount, 0, count + 1, 0);
+        }
+        Arrays.fill(mExtent, 0, count, -1);
+        mCount = count;
+        mGap = gap;
+        mKnownTotal = 0;
+        mKnownTotalCount = 0;
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    public int getGap() {
+        return mGap;
+    }
+
+    /**
+     * extent used for unknown items before any item is known,at least 1 so items are told apart by offset.
+     */
+    public void setDefaultExtent(int defaultExtent) {
+        mDefaultExtent = Math.max(1, defaultExtent);
+    }
+
+    public boolean isKnown(int position) {
+        return position >= 0 && position < mCount && mExtent[position] >= 0;
+    }
+
+    public int getKnownCount() {
+        return mKnownTotalCount;
+    }
+
+    /**
+     * average of known extents,or the default extent if none is known.
+     */
+    public int getEstimate() {
+        return mKnownTotalCount == 0 ? mDefaultExtent : (int) (mKnownTotal / mKnownTotalCount);
+    }
+
+    public void setExtent(int position, int extent) {
+        if (position < 0 || position >= mCount) {
+            return;
+        }
+        extent = Math.max(0, extent);
+        int old = mExtent[position];
+        if (old == extent) {
+            return;
+        }
+        long sumDelta = old < 0 ? extent : (extent - old);
+        int countDelta = old < 0 ? 1 : 0;
+        mExtent[position] = extent;
+        mKnownTotal += sumDelta;
+        mKnownTotalCount += countDelta;
+        for (int i = position + 1; i <= mCount; i += i & (-i)) {
+            mKnownSum[i] += sumDelta;
+            mKnownCount[i] += countDelta;
+        }
+    }
+
+    /**
+     * known or estimated extent of an item.
+     */
+    public int getExtent(int position) {
+        if (position < 0 || position >= mCount) {
+            return 0;
+        }
+        int extent = mExtent[position];
+        return extent >= 0 ? extent : getEstimate();
+    }
+
+    /**
+     * start offset of an item,position in [0,count],start(count) is the end of last item plus gap.
+     */
+    public int getStart(int position) {
+        if (position <= 0) {
+            return 0;
+        }
+        if (position > mCount) {
+            position = mCount;
+        }
+        long sum = 0;
+        int known = 0;
+        for (int i = position; i > 0; i -= i & (-i)) {
+            sum += mKnownSum[i];
+            known += mKnownCount[i];
+        }
+        return (int) (sum + (long) (position - known) * getEstimate() + (long) position * mGap);
+    }
+
+    public int getEnd(int position) {
+        return getStart(position) + getExtent(position);
+    }
+
+    /**
+     * total size of all items.
+     */
+    public int getTotal() {
+        return mCount == 0 ? 0 : getStart(mCount) - mGap;
+    }
+
+    /**
+     * item whose slot [start,start(next)) contains offset,clamped to [0,count-1],-1 if there is no item.
+     * it descends the fenwick trees once to find the most items whose total start is not beyond offset.
+     */
+    public int positionAt(int offset) {
+        if (mCount == 0) {
+            return -1;
+        }
+        final long estimate = getEstimate();
+        long sum = 0;
+        int known = 0, position = 0;
+        for (int step = Integer.highestOneBit(mCount); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= mCount) {
+                long nextSum = sum + mKnownSum[next];
+                int nextKnown = known + mKnownCount[next];
+                if (nextSum + (next - nextKnown) * estimate + (long) next * mGap <= offset) {
+                    position = next;
+                    sum = nextSum;
+                    known = nextKnown;
+                }
+            }
+        }
+        return Math.min(position, mCount - 1);
+    }
+}
@@ -0,0 +1,122 @@
+package com.rexy.widgets.layout;
+
+/**
+ * struct-of-arrays storage of per item state owned by a {@link BaseViewGroup},all indexed by item position.
+ * it holds decoration insets [left,top,right,bottom] and measured extent [width,height] (margin and inset included)
+ * in growable int arrays,so thousands of item views need no per child object.
+ * {@link BaseViewGroup.LayoutParams} keeps its item position as the index to this store.
+ *
+ * @author: rexy
+ * @see BaseViewGroup#getItemStore()
+ */
+public class ItemStore {
+    public static final int INSET_LEFT = 0;
+    public static final int INSET_TOP = 1;
+    public static final int INSET_RIGHT = 2;
+    public static final int INSET_BOTTOM = 3;
+
+    private static final int INSET_STRIDE = 4;
+    private static final int EXTENT_STRIDE = 2;
+
+    private int[] mInsets = new int[0];
+    private int[] mExtents = new int[0];
+    /**
+     * decoration insets of a position are up to date only if its stamp equals to mInsetStamp.
+     */
+    private int[] mInsetStamps = new int[0];
+    private int mInsetStamp = 1;
+    private int mCapacity = 0;
+
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    /**
+     * grow all arrays to hold at least the given count of positions,stored values are kept.
+     */
+    public void ensureCapacity(int count) {
+        if (count > mCapacity) {
+            int capacity = Math.max(16, Math.max(count, mCapacity + (mCapacity >> 1)));
+            mInsets = grow(mInsets, capacity * INSET_STRIDE);
+            mExtents = grow(mExtents, capacity * EXTENT_STRIDE);
+            mInsetStamps = grow(mInsetStamps, capacity);
+            mCapacity = capacity;
+        }
+    }
+
+    private static int[] grow(int[] array, int size) {
+        int[] result = new int[size];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+
+    /**
+     * mark all decoration insets out of date in O(1).
+     */
+    public void invalidateInsets() {
+        mInsetStamp++;
+    }
+
+    public boolean isInsetsValid(int position) {
+        return position >= 0 && position < mCapacity && mInsetStamps[position] == mInsetStamp;
+    }
+
+    public void setInsets(int position, int left, int top, int right, int bottom) {
+        ensureCapacity(position + 1);
+        int index = position * INSET_STRIDE;
+        mInsets[index + INSET_LEFT] = left;
+        mInsets[index + INSET_TOP] = top;
+        mInsets[index + INSET_RIGHT] = right;
+        mInsets[index + INSET_BOTTOM] = bottom;
+        mInsetStamps[position] = mInsetStamp;
+    }
+
+    /**
+     * @param side one of {@link #INSET_LEFT},{@link #INSET_TOP},{@link #INSET_RIGHT},{@link #INSET_BOTTOM}
+     */
+    public int getInset(int position, int side) {
+        return position >= 0 && position < mCapacity ? mInsets[position * INSET_STRIDE + side] : 0;
+    }
+
+    public int getInsetHorizontal(int position) {
+        if (position >= 0 && position < mCapacity) {
+            int index = position * INSET_STRIDE;
+            return mInsets[index + INSET_LEFT] + mInsets[index + INSET_RIGHT];
+        }
+        return 0;
+    }
+
+    public int getInsetVertical(int position) {
+        if (position >= 0 && position < mCapacity) {
+            int index = position * INSET_STRIDE;
+            return mInsets[index + INSET_TOP] + mInsets[index + INSET_BOTTOM];
+        }
+        return 0;
+    }
+
+    /**
+     * @param width measured width with margin and inset
+     * @param height measured height with margin and inset
+     */
+    public void setExtent(int position, int width, int height) {
+        ensureCapacity(position + 1);
+        int index = position * EXTENT_STRIDE;
+        mExtents[index] = width;
+        mExtents[index + 1] = height;
+    }
+
+    public int getExtentWidth(int position) {
+        return position >= 0 && position < mCapacity ? mExtents[position * EXTENT_STRIDE] : 0;
+    }
+
+    public int getExtentHeight(int position) {
+        return position >= 0 && position < mCapacity ? mExtents[position * EXTENT_STRIDE + 1] : 0;
+    }
+
+    /**
+     * extent along or across the orientation.
+     */
+    public int getExtent(int position, boolean horizontal) {
+        return horizontal ? getExtentWidth(position) : getExtentHeight(position);
+    }
+}
@@ -0,0 +1,200 @@
+package com.rexy.widgets.layout;
+
+/**
+ * nanosecond cost metrics of measure,layout and draw for a {@link BaseViewGroup}.
+ * each phase keeps its count,total,last and max cost and a fixed bucket latency histogram,
+ * so recording a sample never allocate memory.
+ * <p>
+ * it's not thread safe,read it on the main thread or through {@link #snapshot(Snapshot)}.
+ * </p>
+ *
+ * @see BaseViewGroup#getLayoutMetrics()
+ */
+public class LayoutMetrics {
+    public static final int PHASE_MEASURE = 0;
+    public static final int PHASE_LAYOUT = 1;
+    public static final int PHASE_DRAW = 2;
+    public static final int PHASE_COUNT = 3;
+
+    /**
+     * upper bound(inclusive) in nanoseconds of each histogram bucket,the last bucket has no upper bound.
+     */
+    private static final long[] BUCKET_BOUNDS = new long[]{
+            1000L, 2000L, 5000L,
+            10000L, 20000L, 50000L,
+            100000L, 200000L, 500000L,
+            1000000L, 2000000L, 4000000L, 8000000L, 16000000L,
+            33000000L, 50000000L, 100000000L, 250000000L, 500000000L
+    };
+    public static final int BUCKET_COUNT = BUCKET_BOUNDS.length + 1;
+
+    private final long[] mCount = new long[PHASE_COUNT];
+    private final long[] mTotal = new long[PHASE_COUNT];
+    private final long[] mLast = new long[PHASE_COUNT];
+    private final long[] mMax = new long[PHASE_COUNT];
+    private final int[] mHistogram = new int[PHASE_COUNT * BUCKET_COUNT];
+
+    private OnMetricsRecordListener mListener;
+
+    public void setOnMetricsRecordListener(OnMetricsRecordListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * record one sample of a phase
+     *
+     * @param phase {@link #PHASE_MEASURE},{@link #PHASE_LAYOUT} or {@link #PHASE_DRAW}
+     * @param costNanos cost of this phase in nanoseconds.
+     */
+    public void record(int phase, long costNanos) {
+        if (costNanos < 0) costNanos = 0;
+        mCount[phase]++;
+        mTotal[phase] += costNanos;
+        mLast[phase] = costNanos;
+        if (costNanos > mMax[phase]) {
+            mMax[phase] = costNanos;
+        }
+        mHistogram[phase * BUCKET_COUNT + bucketOf(costNanos)]++;
+        if (mListener != null) {
+            mListener.onMetricsRecord(this, phase, costNanos);
+        }
+    }
+
+    private static int bucketOf(long costNanos) {
+        int low = 0, high = BUCKET_BOUNDS.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (BUCKET_BOUNDS[mid] < costNanos) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * upper bound of a histogram bucket in nanoseconds,{@link Long#MAX_VALUE} for the last bucket.
+     */
+    public static long getBucketUpperBound(int bucket) {
+        return bucket < BUCKET_BOUNDS.length ? BUCKET_BOUNDS[bucket] : Long.MAX_VALUE;
+    }
+
+    public long getCount(int phase) {
+        return mCount[phase];
+    }
+
+    public long getTotalNanos(int phase) {
+        return mTotal[phase];
+    }
+
+    public long getLastNanos(int phase) {
+        return mLast[phase];
+    }
+
+    public long getMaxNanos(int phase) {
+        return mMax[phase];
+    }
+
+    public long getAverageNanos(int phase) {
+        long count = mCount[phase];
+        return count == 0 ? 0 : mTotal[phase] / count;
+    }
+
+    public int getBucketCount(int phase, int bucket) {
+        return mHistogram[phase * BUCKET_COUNT + bucket];
+    }
+
+    /**
+     * estimate a percentile cost from the histogram,the result is the upper bound of the bucket it falls in
+     * but never greater than the max cost recorded.
+     *
+     * @param percentile in range (0,1] ,such as 0.5f,0.9f,0.99f
+     */
+    public long getPercentileNanos(int phase, float percentile) {
+        long count = mCount[phase];
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(count * (double) percentile);
+        if (target < 1) target = 1;
+        long sum = 0;
+        int offset = phase * BUCKET_COUNT;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            sum += mHistogram[offset + i];
+            if (sum >= target) {
+                return Math.min(getBucketUpperBound(i), mMax[phase]);
+            }
+        }
+        return mMax[phase];
+    }
+
+    public void reset() {
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            mCount[i] = mTotal[i] = mLast[i] = mMax[i] = 0;
+        }
+        for (int i = mHistogram.length - 1; i >= 0; i--) {
+            mHistogram[i] = 0;
+        }
+    }
+
+    /**
+     * copy current metrics into a snapshot that can be kept or read later.
+     *
+     * @param out reuse it if not null.
+     */
+    public Snapshot snapshot(Snapshot out) {
+        if (out == null) {
+            out = new Snapshot();
+        }
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            out.count[i] = mCount[i];
+            out.totalNanos[i] = mTotal[i];
+            out.lastNanos[i] = mLast[i];
+            out.maxNanos[i] = mMax[i];
+            out.p50Nanos[i] = getPercentileNanos(i, 0.5f);
+            out.p90Nanos[i] = getPercentileNanos(i, 0.9f);
+            out.p99Nanos[i] = getPercentileNanos(i, 0.99f);
+        }
+        System.arraycopy(mHistogram, 0, out.histogram, 0, mHistogram.length);
+        return out;
+    }
+
+    /**
+     * a copy of {@link LayoutMetrics},all arrays are indexed by phase except {@link #histogram}
+     * which is indexed by phase*{@link #BUCKET_COUNT}+bucket.
+     */
+    public static class Snapshot {
+        public final long[] count = new long[PHASE_COUNT];
+        public final long[] totalNanos = new long[PHASE_COUNT];
+        public final long[] lastNanos = new long[PHASE_COUNT];
+        public final long[] maxNanos = new long[PHASE_COUNT];
+        public final long[] p50Nanos = new long[PHASE_COUNT];
+        public final long[] p90Nanos = new long[PHASE_COUNT];
+        public final long[] p99Nanos = new long[PHASE_COUNT];
+        public final int[] histogram = new int[PHASE_COUNT * BUCKET_COUNT];
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(160);
+            for (int i = 0; i < PHASE_COUNT; i++) {
+                sb.append(i == PHASE_MEASURE ? "measure" : (i == PHASE_LAYOUT ? "layout" : "draw"));
+                sb.append("[count=").append(count[i]);
+                sb.append(",avg=").append(count[i] == 0 ? 0 : totalNanos[i] / count[i]);
+                sb.append(",p50=").append(p50Nanos[i]);
+                sb.append(",p90=").append(p90Nanos[i]);
+                sb.append(",p99=").append(p99Nanos[i]);
+                sb.append(",max=").append(maxNanos[i]).append(']');
+                if (i < PHASE_COUNT - 1) sb.append(',');
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * called on the thread recording the sample,usually the main thread.
+     */
+    public interface OnMetricsRecordListener {
+        void onMetricsRecord(LayoutMetrics metrics, int phase, long costNanos);
+    }
+}
@@ -0,0 +1,236 @@
+package com.rexy.widgets.layout;
+
+import android.view.View;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * a preallocated ring buffer of primitive trace events,recording an event never allocate memory,
+ * the oldest events are overwritten when it's full.
+ * it can be shared among several {@link BaseViewGroup} by {@link BaseViewGroup#setLayoutTrace(LayoutTrace)}
+ * and dumped to text or a compact binary format on demand.
+ * <p>
+ * each event is made of type,view id,phase,timestamp in nanoseconds and four int args,
+ * see each EVENT_XXX for the meaning of its args.
+ * </p>
+ *
+ * @author: rexy
+ */
+public class LayoutTrace {
+    /**
+     * args:cost in microsecond,measured width,measured height,1 if measure cache hit else 0
+     */
+    public static final int EVENT_MEASURE = 1;
+    /**
+     * args:cost in microsecond,1 if first attach layout else 0,content width,content height
+     */
+    public static final int EVENT_LAYOUT = 2;
+    /**
+     * args:cost in microsecond,width,height,culled children count
+     */
+    public static final int EVENT_DRAW = 3;
+    /**
+     * visible content bounds changed,args:scrollX,scrollY,visible width,visible height
+     */
+    public static final int EVENT_SCROLL = 4;
+    /**
+     * args:first visible,last visible,old first visible,old last visible
+     */
+    public static final int EVENT_VISIBLE_RANGE = 5;
+    /**
+     * args:new state,previous state,0,0
+     */
+    public static final int EVENT_SCROLL_STATE = 6;
+    /**
+     * args:current item,previous item,0,0
+     */
+    public static final int EVENT_PAGE_SELECTED = 7;
+    /**
+     * args:velocityX,velocityY,scrollX,scrollY
+     */
+    public static final int EVENT_FLING = 8;
+    /**
+     * scroll layers changed,args:promoted count,demoted count,active layer count,max layer count
+     */
+    public static final int EVENT_LAYER = 9;
+
+    public static final int PHASE_MEASURE = LayoutMetrics.PHASE_MEASURE;
+    public static final int PHASE_LAYOUT = LayoutMetrics.PHASE_LAYOUT;
+    public static final int PHASE_DRAW = LayoutMetrics.PHASE_DRAW;
+    public static final int PHASE_SCROLL = 3;
+    public static final int PHASE_TOUCH = 4;
+
+    private static final int ARG_COUNT = 4;
+    private static final int BINARY_MAGIC = 0x4C545243;//LTRC
+    private static final int BINARY_VERSION = 1;
+
+    private final int mCapacity;
+    private final int[] mType;
+    private final int[] mPhase;
+    private final int[] mViewId;
+    private final long[] mTime;
+    private final int[] mArgs;
+    /**
+     * total events recorded since created or cleared,next write index is mRecorded%mCapacity
+     */
+    private long mRecorded;
+    private boolean mEnable = true;
+
+    public LayoutTrace(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        mCapacity = capacity;
+        mType = new int[capacity];
+        mPhase = new int[capacity];
+        mViewId = new int[capacity];
+        mTime = new long[capacity];
+        mArgs = new int[capacity * ARG_COUNT];
+    }
+
+    public void setEnable(boolean enable) {
+        mEnable = enable;
+    }
+
+    public boolean isEnable() {
+        return mEnable;
+    }
+
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    /**
+     * number of events currently hold in the buffer.
+     */
+    public synchronized int size() {
+        return (int) Math.min(mRecorded, mCapacity);
+    }
+
+    public synchronized void clear() {
+        mRecorded = 0;
+    }
+
+    /**
+     * view id if it has one or its identity hash code
+     */
+    public static int viewId(View view) {
+        int id = view == null ? View.NO_ID : view.getId();
+        return id == View.NO_ID ? System.identityHashCode(view) : id;
+    }
+
+    public void record(int type, int phase, View view, int arg0, int arg1, int arg2, int arg3) {
+        if (mEnable) {
+            record(type, phase, viewId(view), System.nanoTime(), arg0, arg1, arg2, arg3);
+        }
+    }
+
+    public synchronized void record(int type, int phase, int viewId, long timeNanos, int arg0, int arg1, int arg2, int arg3) {
+        int index = (int) (mRecorded % mCapacity), argIndex = index * ARG_COUNT;
+        mType[index] = type;
+        mPhase[index] = phase;
+        mViewId[index] = viewId;
+        mTime[index] = timeNanos;
+        mArgs[argIndex] = arg0;
+        mArgs[argIndex + 1] = arg1;
+        mArgs[argIndex + 2] = arg2;
+        mArgs[argIndex + 3] = arg3;
+        mRecorded++;
+    }
+
+    private int oldestIndex() {
+        return mRecorded > mCapacity ? (int) (mRecorded % mCapacity) : 0;
+    }
+
+    public static String eventName(int type) {
+        switch (type) {
+            case EVENT_MEASURE:
+                return "measure";
+            case EVENT_LAYOUT:
+                return "layout";
+            case EVENT_DRAW:
+                return "draw";
+            case EVENT_SCROLL:
+                return "scroll";
+            case EVENT_VISIBLE_RANGE:
+                return "range";
+            case EVENT_SCROLL_STATE:
+                return "state";
+            case EVENT_PAGE_SELECTED:
+                return "select";
+            case EVENT_FLING:
+                return "fling";
+            case EVENT_LAYER:
+                return "layer";
+        }
+        return String.valueOf(type);
+    }
+
+    public static String phaseName(int phase) {
+        switch (phase) {
+            case PHASE_MEASURE:
+                return "M";
+            case PHASE_LAYOUT:
+                return "L";
+            case PHASE_DRAW:
+                return "D";
+            case PHASE_SCROLL:
+                return "S";
+            case PHASE_TOUCH:
+                return "T";
+        }
+        return String.valueOf(phase);
+    }
+
+    /**
+     * dump events from the oldest to the newest,one event per line:
+     * timestamp(ns) event phase viewId(hex) arg0 arg1 arg2 arg3
+     */
+    public synchronized void dumpText(Writer writer) {
+        PrintWriter pw = writer instanceof PrintWriter ? (PrintWriter) writer : new PrintWriter(writer);
+        int size = size(), start = oldestIndex();
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % mCapacity, argIndex = index * ARG_COUNT;
+            pw.print(mTime[index]);
+            pw.print(' ');
+            pw.print(eventName(mType[index]));
+            pw.print(' ');
+            pw.print(phaseName(mPhase[index]));
+            pw.print(' ');
+            pw.print(Integer.toHexString(mViewId[index]));
+            for (int j = 0; j < ARG_COUNT; j++) {
+                pw.print(' ');
+                pw.print(mArgs[argIndex + j]);
+            }
+            pw.println();
+        }
+        pw.flush();
+    }
+
+    /**
+     * dump events from the oldest to the newest in big endian binary:
+     * header [int magic 'LTRC',int version,int count] then each event [int type,int phase,int viewId,long time,int arg0..arg3]
+     */
+    public synchronized void dumpBinary(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        int size = size(), start = oldestIndex();
+        out.writeInt(BINARY_MAGIC);
+        out.writeInt(BINARY_VERSION);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % mCapacity, argIndex = index * ARG_COUNT;
+            out.writeInt(mType[index]);
+            out.writeInt(mPhase[index]);
+            out.writeInt(mViewId[index]);
+            out.writeLong(mTime[index]);
+            for (int j = 0; j < ARG_COUNT; j++) {
+                out.writeInt(mArgs[argIndex + j]);
+            }
+        }
+        out.flush();
+    }
+}
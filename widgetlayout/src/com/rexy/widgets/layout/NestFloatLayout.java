@@ -258,6 +258,7 @@ public class NestFloatLayout extends ScrollLayout implements NestedScrollingPare
     public void onNestedPreScroll(View target, int dx, int dy, int[] consumed) {
         View floatView = getFloatView();
         if (floatView != null) {
+            //scroll range is cached between layouts,so it's cheap on every nested move.
             int maxSelfScrolled = getVerticalScrollRange();
             int curSelfScrolled = getScrollY();
             int consumedY = 0;
@@ -270,7 +271,9 @@ public class NestFloatLayout extends ScrollLayout implements NestedScrollingPare
             if (consumedY != 0) {
                 scrollBy(0, consumedY);
                 invalidate();
-                print("nest", "consumed:" + consumedY);
+                if (isLogAccess()) {
+                    print("nest", "consumed:" + consumedY);
+                }
             }
             consumed[1] = consumedY;
         }
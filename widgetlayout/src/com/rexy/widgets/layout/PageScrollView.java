@@ -3,22 +3,17 @@ package com.rexy.widgets.layout;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
-import android.graphics.PointF;
 import android.graphics.Rect;
-import android.support.v4.util.Pools;
+import android.os.Parcelable;
 import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
 import android.view.Gravity;
 import android.view.View;
 
 import com.rexy.widgetlayout.R;
+import com.rexy.widgets.adapter.ItemProvider;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.List;
 
 /**
  * A customized scroll container support both Horizontal and Vertical layout and gesture.
@@ -52,20 +47,69 @@ public class PageScrollView extends ScrollLayout {
 
     int mCurrItem = 0;
     int mPrevItem = -1;
+    int mOffscreenPageLimit = 1;
+    int mRestoreItem = -1;
+    /**
+     * pages of view provider repeated in a ring at least so many pages,the ring is odd times of page count.
+     */
+    private static final int CIRCULAR_MIN_RING_PAGES = 48;
+    boolean mCircular = false;
+    /**
+     * page position to show after next layout when circular mode or data changed,-1 if none.
+     */
+    int mCircularSnapItem = -1;
     int mFirstVisiblePosition = -1;
     int mLastVisiblePosition = -1;
 
     boolean mNeedResolveFloatOffset = false;
 
+    /**
+     * sorted item positions of sticky section headers.
+     */
+    private int[] mStickyPositions = new int[0];
+    private static final int STICKY_TABLE_STRIDE = 3;
+    /**
+     * [start,end,child index] of each sticky item laid out,sorted by start,rebuilt after layout from page table.
+     */
+    private int[] mStickyTable = new int[0];
+    private int mStickyCount = 0;
+    private View mStickyActiveView;
+    private int mStickyActiveChild = -1;
+
+    /**
+     * max pages a fling of view pager style may move from current item,0 for no limit.
+     */
+    int mFlingPageLimit = 1;
+
     PageTransformer mPageTransformer;
     OnPageChangeListener mPageListener = null;
     OnVisibleRangeChangeListener mOnVisibleRangeChangeListener = null;
 
-    private Comparator<PointF> mComparator;
-    private List<PointF> mPairList;
-    private static final Pools.SimplePool<PointF> sPairPools = new Pools.SimplePool(8);
+    /**
+     * (size<<32|child index) of fill parent items sorted by size,reused by every measure.
+     */
+    private long[] mMatchOrder = new long[0];
     private int[] mMeasureTemp = new int[3], mMeasureSum = new int[5];
 
+    private static final int PAGE_TABLE_STRIDE = 5;
+    /**
+     * [start,end,offset,centre,size] of each item view in layout order,start and end are bounds along scroll orientation,
+     * offset and centre are scroll offsets to show the item at start or centre of visible content bounds,
+     * centre is kept without the half size of visible content bounds,size includes margins.
+     */
+    private int[] mPageTable = new int[PAGE_TABLE_STRIDE * 8];
+    private int mPageTableCount = 0;
+    private boolean mPageTableDirty = true;
+    private boolean mPageTableHorizontal = false;
+
+    /**
+     * transform positions of pages from mTransformFirst of this frame and the last frame,
+     * pages whose position is unchanged since the last frame are not transformed again.
+     */
+    private float[] mTransformPositions = new float[4], mTransformLastPositions = new float[4];
+    private int mTransformFirst = 0, mTransformCount = 0;
+    private int mTransformLastFirst = 0, mTransformLastCount = 0;
+
     public PageScrollView(Context context) {
         super(context);
         init(context, null);
@@ -113,6 +157,7 @@ public class PageScrollView extends ScrollLayout {
             mFloatViewEndIndex = -1;
             mFloatViewEndMode = 0;
         }
+        resetStickyActiveView();
         setTouchScrollEnable(isTouchScrollEnable(false));
         if (!isAttachLayoutFinished()) {
             scrollToItem(mCurrItem, 0, 0, isViewPagerStyle);
@@ -154,6 +199,39 @@ public class PageScrollView extends ScrollLayout {
         }
     }
 
+    /**
+     * item positions whose views stick to the scroll start until the next sticky item pushes them away,
+     * such as section headers of a catalog. it's ignored when a view provider is set.
+     */
+    public void setStickyPositions(int... positions) {
+        int count = 0;
+        int[] sorted = new int[positions == null ? 0 : positions.length];
+        for (int i = 0; i < sorted.length; i++) {
+            if (positions[i] >= 0) {
+                sorted[count++] = positions[i];
+            }
+        }
+        Arrays.sort(sorted, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || sorted[unique - 1] != sorted[i]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        if (unique != sorted.length) {
+            sorted = Arrays.copyOf(sorted, unique);
+        }
+        if (!Arrays.equals(mStickyPositions, sorted)) {
+            mStickyPositions = sorted;
+            resetStickyActiveView();
+            requestLayout();
+        }
+    }
+
+    public int[] getStickyPositions() {
+        return mStickyPositions.clone();
+    }
+
     public float getSizeFixedPercent() {
         return mSizeFixedPercent;
     }
@@ -211,7 +289,7 @@ public class PageScrollView extends ScrollLayout {
                 removeViewInLayout(mPageHeaderView);
             }
             mPageHeaderView = headView;
-            if (mPageHeaderView != null) {
+            if (mPageHeaderView != null && getViewProvider() == null) {
                 addView(mPageHeaderView);
                 mNeedResolveFloatOffset = true;
             }
@@ -229,7 +307,7 @@ public class PageScrollView extends ScrollLayout {
                 removeViewInLayout(mPageFooterView);
             }
             mPageFooterView = pageFooterView;
-            if (mPageFooterView != null) {
+            if (mPageFooterView != null && getViewProvider() == null) {
                 addView(mPageFooterView);
                 mNeedResolveFloatOffset = true;
             }
@@ -245,6 +323,7 @@ public class PageScrollView extends ScrollLayout {
         if (mPageTransformer != transformer) {
             PageTransformer oldTransformer = mPageTransformer;
             mPageTransformer = transformer;
+            mTransformCount = 0;
             if (isAttachLayoutFinished()) {
                 boolean horizontal = isOrientationHorizontal();
                 if (oldTransformer != null && mPageTransformer == null) {
@@ -263,6 +342,127 @@ public class PageScrollView extends ScrollLayout {
         }
     }
 
+    public int getOffscreenPageLimit() {
+        return mOffscreenPageLimit;
+    }
+
+    /**
+     * pages kept attached on each side of current page when pages are provided by {@link #setViewProvider(ItemProvider.ViewProvider)},
+     * pages out of it are detached and recycled,pages coming into it are bound and measured on demand.
+     * page header,footer and float views are not supported with a view provider.
+     */
+    public void setOffscreenPageLimit(int limit) {
+        limit = Math.max(0, limit);
+        if (mOffscreenPageLimit != limit) {
+            mOffscreenPageLimit = limit;
+            if (getViewProvider() != null) {
+                requestLayout();
+            }
+        }
+    }
+
+    /**
+     * circular paging of pages from {@link #setViewProvider(ItemProvider.ViewProvider)}:pages are repeated in a bounded ring,
+     * scroll offset and page index are rebased to the middle of the ring when it's idle,so it never reaches an end.
+     * attached pages,memory and layout time don't grow however long it runs.
+     * positions of {@link #getCurrentItem()},{@link OnPageChangeListener} and {@link OnVisibleRangeChangeListener}
+     * as well as {@link ScrollLayout.OnItemVisibilityListener} and {@link ScrollLayout.OnFlingPredictionListener}
+     * are modulo page count in this mode,{@link #scrollTo(int, int, int)} scrolls to the nearest page of the position.
+     */
+    public void setCircularEnable(boolean circular) {
+        if (mCircular != circular) {
+            mCircularSnapItem = getCurrentItem();
+            mCircular = circular;
+            if (getViewProvider() != null) {
+                requestLayout();
+            }
+        }
+    }
+
+    public boolean isCircularEnable() {
+        return mCircular;
+    }
+
+    private boolean isCircularMode() {
+        return mCircular && getViewProvider() != null && getVirtualProviderCount() > 0;
+    }
+
+    /**
+     * page position modulo page count in circular mode.
+     */
+    private int toPagePosition(int ringPosition) {
+        return ringPosition >= 0 && isCircularMode() ? ringPosition % getVirtualProviderCount() : ringPosition;
+    }
+
+    /**
+     * ring position of a page nearest to current item in circular mode.
+     */
+    private int toRingPosition(int pagePosition) {
+        if (!isCircularMode()) {
+            return pagePosition;
+        }
+        final int count = getVirtualProviderCount(), ringCount = getVirtualItemCount();
+        int position = mCurrItem - mCurrItem % count + (pagePosition % count + count) % count;
+        if (position - mCurrItem > count / 2 && position - count >= 0) {
+            position -= count;
+        } else if (mCurrItem - position > count / 2 && position + count < ringCount) {
+            position += count;
+        }
+        return position;
+    }
+
+    @Override
+    protected int toReportedPosition(int itemPosition) {
+        return toPagePosition(itemPosition);
+    }
+
+    @Override
+    protected int getVirtualRepeatCount(int providerCount) {
+        if (mCircular && providerCount > 0) {
+            int repeat = Math.max(3, (CIRCULAR_MIN_RING_PAGES + providerCount - 1) / providerCount);
+            return (repeat & 1) == 0 ? repeat + 1 : repeat;
+        }
+        return 1;
+    }
+
+    /**
+     * move scroll offset and page index to the same page in the middle of the ring,nothing is reported
+     * since positions modulo page count are unchanged.
+     */
+    private void rebaseCircular() {
+        final int count = getVirtualProviderCount();
+        final int reference = isViewPagerStyle ? mCurrItem : Math.max(0, mFirstVisiblePosition);
+        final int shift = (getVirtualItemCount() / count / 2) * count - (reference - reference % count);
+        if (shift == 0 || getScrollState() != SCROLL_STATE_IDLE) {
+            return;
+        }
+        final int delta = computeVirtualScrollOffset(reference + shift, false) - computeVirtualScrollOffset(reference, false);
+        mCurrItem += shift;
+        if (mPrevItem >= 0) {
+            mPrevItem += shift;
+        }
+        if (mFirstVisiblePosition >= 0) {
+            mFirstVisiblePosition += shift;
+            mLastVisiblePosition += shift;
+        }
+        if (isOrientationHorizontal()) {
+            scrollTo(getScrollX() + delta, getScrollY());
+        } else {
+            scrollTo(getScrollX(), getScrollY() + delta);
+        }
+    }
+
+    /**
+     * page count of view provider or item view count.
+     */
+    private int getPageCount() {
+        return getViewProvider() == null ? getItemViewCount() : getVirtualItemCount();
+    }
+
+    private int getFirstPagePosition() {
+        return getViewProvider() == null ? 0 : Math.max(0, getFirstAttachedPosition());
+    }
+
     public OnPageChangeListener getPageChangeListener() {
         return mPageListener;
     }
@@ -271,6 +471,21 @@ public class PageScrollView extends ScrollLayout {
         mPageListener = listener;
     }
 
+    /**
+     * max pages a fling of view pager style may move from current item,it's 1 by default as ViewPager.
+     * a larger limit or 0 (no limit) lets a fling of carousel with small or variable size pages land on the page
+     * nearest to where the fling physics would stop.
+     * the projection only applies to a fling which already turns to the next page by its direction and distance,
+     * a weak fling settles back to current item as before.
+     */
+    public void setFlingPageLimit(int pageLimit) {
+        mFlingPageLimit = Math.max(0, pageLimit);
+    }
+
+    public int getFlingPageLimit() {
+        return mFlingPageLimit;
+    }
+
     public OnVisibleRangeChangeListener getVisibleRangeChangeListener() {
         return mOnVisibleRangeChangeListener;
     }
@@ -288,11 +503,11 @@ public class PageScrollView extends ScrollLayout {
     }
 
     public int getCurrentItem() {
-        return mCurrItem;
+        return toPagePosition(mCurrItem);
     }
 
     public int getPrevItem() {
-        return mPrevItem;
+        return toPagePosition(mPrevItem);
     }
 
     //TODO 判断是否可悬停，可能需要在onLayout 中进行。
@@ -343,7 +558,7 @@ public class PageScrollView extends ScrollLayout {
     @Override
     protected void dispatchMeasure(int widthMeasureSpecContent, int heightMeasureSpecContent) {
         boolean horizontal = isOrientationHorizontal();
-        int itemCount = getItemViewCount();
+        int itemCount = getPageCount();
         Arrays.fill(mMeasureSum, 0);
         if (hasPageHeaderView()) {
             Arrays.fill(mMeasureTemp, 0);
@@ -392,23 +607,22 @@ public class PageScrollView extends ScrollLayout {
         }
         itemWidthMeasureSpec = MeasureSpec.makeMeasureSpec(accessWidth, MeasureSpec.getMode(widthMeasureSpec));
         itemHeightMeasureSpec = MeasureSpec.makeMeasureSpec(accessHeight, MeasureSpec.getMode(heightMeasureSpec));
+        if (getViewProvider() != null) {
+            int viewport = horizontal ? MeasureSpec.getSize(widthMeasureSpec) - widthUsed : MeasureSpec.getSize(heightMeasureSpec) - heightUsed;
+            measureVirtualItems(itemWidthMeasureSpec, itemHeightMeasureSpec, viewport, horizontal, mMeasureTemp);
+            return;
+        }
+        if (dispatchMeasureIncremental(itemWidthMeasureSpec, itemHeightMeasureSpec, horizontal, mMeasureTemp)) {
+            return;
+        }
         final int childCount = getChildCount();
         int contentWidth = 0, contentHeight = 0, childState = 0, itemPosition = 0;
+        beginItemRecord(getItemViewCount());
         for (int i = 0; i < childCount; i++) {
             final View child = getChildAt(i);
             if (skipVirtualChild(child, true)) continue;
             LayoutParams params = (LayoutParams) child.getLayoutParams();
-            int oldParamsWidth = params.width, oldParamsHeight = params.height;
-            if (fixedOrientationSize) {
-                if (horizontal) {
-                    params.width = -1;
-                } else {
-                    params.height = -1;
-                }
-            }
-            params.measure(child, itemPosition++, itemWidthMeasureSpec, itemHeightMeasureSpec, 0, 0);
-            params.width = oldParamsWidth;
-            params.height = oldParamsHeight;
+            measureItem(child, params, itemPosition++, itemWidthMeasureSpec, itemHeightMeasureSpec, horizontal);
             int itemWidth = params.width(child), itemHeight = params.height(child);
             if (horizontal) {
                 contentWidth += (itemWidth + itemMargin);
@@ -419,6 +633,7 @@ public class PageScrollView extends ScrollLayout {
             }
             childState |= child.getMeasuredState();
         }
+        endItemRecord(itemPosition, itemWidthMeasureSpec, itemHeightMeasureSpec, childState);
         if (horizontal) {
             mMeasureTemp[0] = contentWidth - itemMargin;
             mMeasureTemp[1] = contentHeight;
@@ -429,10 +644,31 @@ public class PageScrollView extends ScrollLayout {
         mMeasureTemp[2] = childState;
     }
 
+    @Override
+    protected void measureItem(View child, LayoutParams params, int itemPosition, int itemWidthMeasureSpec, int itemHeightMeasureSpec, boolean horizontal) {
+        int oldParamsWidth = params.width, oldParamsHeight = params.height;
+        if (mSizeFixedPercent > 0 && mSizeFixedPercent <= 1) {
+            if (horizontal) {
+                params.width = -1;
+            } else {
+                params.height = -1;
+            }
+        }
+        params.measure(this, child, itemPosition, itemWidthMeasureSpec, itemHeightMeasureSpec, 0, 0);
+        params.width = oldParamsWidth;
+        params.height = oldParamsHeight;
+    }
+
+    @Override
+    protected boolean isIncrementalLayoutSupported() {
+        //fill parent adjust size of all items and float view depends on item offset.
+        return super.isIncrementalLayoutSupported() && !isChildFillParent && mFloatViewStart < 0 && mFloatViewEnd < 0;
+    }
+
     @Override
     protected void doAfterMeasure(int measuredWidth, int measuredHeight, int contentWidth, int contentHeight) {
         int itemCount = getItemViewCount();
-        if (itemCount > 0) {
+        if (itemCount > 0 && getViewProvider() == null) {
             boolean horizontal = isOrientationHorizontal();
             if (isChildFillParent && itemCount > 0) {
                 int adjustTotal;
@@ -455,7 +691,32 @@ public class PageScrollView extends ScrollLayout {
 
     @Override
     protected void doAfterLayout(boolean firstAttachLayout) {
+        if (mRestoreItem >= 0 && getPageCount() > 0) {
+            if (isCircularMode()) {
+                mCircularSnapItem = mRestoreItem;
+            } else {
+                setCurrentItem(Math.min(mRestoreItem, getPageCount() - 1));
+            }
+            mRestoreItem = -1;
+        }
         super.doAfterLayout(firstAttachLayout);
+        if (mCircularSnapItem >= 0 && getViewProvider() != null && getPageCount() > 0) {
+            int pageCount = isCircularMode() ? getVirtualProviderCount() : getPageCount();
+            int target = Math.min(mCircularSnapItem % pageCount, pageCount - 1);
+            if (isCircularMode()) {
+                target += (getVirtualItemCount() / pageCount / 2) * pageCount;
+            }
+            mCircularSnapItem = -1;
+            setCurrentItem(target);
+            boolean horizontal = isOrientationHorizontal();
+            int scrolled = computeScrollOffset(target, 0, isViewPagerStyle, horizontal);
+            scrollTo(horizontal ? scrolled : getScrollX(), horizontal ? getScrollY() : scrolled);
+        } else if (isCircularMode()) {
+            rebaseCircular();
+        }
+        if (mStickyCount > 0 || mStickyActiveView != null) {
+            updateStickyViews(isOrientationHorizontal());
+        }
         if (mNeedResolveFloatOffset && !firstAttachLayout) {
             mNeedResolveFloatOffset = false;
             boolean horizontal = isOrientationHorizontal();
@@ -469,100 +730,66 @@ public class PageScrollView extends ScrollLayout {
         }
     }
 
-    private void destroyCacheMeasureSize() {
-        Iterator<PointF> its = mPairList.iterator();
-        while (its.hasNext()) {
-            PointF it = its.next();
-            sPairPools.release(it);
-            its.remove();
-        }
-    }
-
-    private List<PointF> buildCacheMeasureSize(int childCount, boolean horizontal) {
-        if (mPairList == null) {
-            mPairList = new ArrayList(8);
-            mComparator = new Comparator<PointF>() {
-                @Override
-                public int compare(PointF l, PointF r) {
-                    return Float.compare(l.y, r.y);
-                }
-            };
-        } else {
-            destroyCacheMeasureSize();
+    /**
+     * pack (size,child index) of fill parent items into {@link #mMatchOrder} and sort them by size.
+     *
+     * @return count of items packed.
+     */
+    private int buildMatchOrder(int childCount, boolean horizontal) {
+        if (mMatchOrder.length < childCount) {
+            mMatchOrder = new long[childCount];
         }
+        int matchSize = 0;
         for (int i = 0; i < childCount; i++) {
             final View child = getChildAt(i);
             if (skipVirtualChild(child, true)) continue;
-            PointF pair = sPairPools.acquire();
-            if (pair == null) {
-                pair = new PointF();
-            }
-            if (horizontal) {
-                pair.set(i, ((LayoutParams) child.getLayoutParams()).width(child));
-            } else {
-                pair.set(i, ((LayoutParams) child.getLayoutParams()).height(child));
-            }
-            mPairList.add(pair);
-        }
-        return mPairList;
-    }
-
-    private void adjustMatchMeasureSize(int matchSize, float space) {
-        Collections.sort(mPairList, mComparator);
-        int startIndex = 0;
-        while (space > 1) {
-            int diffIndex = -1;
-            PointF start = mPairList.get(startIndex), current = null;
-            for (int i = startIndex + 1; i < matchSize; i++) {
-                current = mPairList.get(i);
-                if (current.y > start.y) {
-                    diffIndex = i;
-                    break;
-                }
-            }
-            if (diffIndex == -1) {
-                float addedSize = space / matchSize;
-                for (PointF point : mPairList) {
-                    point.y = point.y + addedSize;
-                }
-                space = 0;
-            } else {
-                float addedSize = Math.min(current.y - start.y, space / diffIndex);
-                for (int i = 0; i < diffIndex; i++) {
-                    start = mPairList.get(i);
-                    start.y = start.y + addedSize;
-                }
-                space = space - (addedSize * diffIndex);
-                startIndex = diffIndex;
+            LayoutParams params = (LayoutParams) child.getLayoutParams();
+            long size = Math.max(0, horizontal ? params.width(child) : params.height(child));
+            mMatchOrder[matchSize++] = (size << 32) | i;
+        }
+        Arrays.sort(mMatchOrder, 0, matchSize);
+        return matchSize;
+    }
+
+    /**
+     * water filling:the smallest items grow to a common level until space is used up,bigger items are untouched.
+     * the level is found in one pass over sizes sorted ascending,the pixels left by integer division go to the first items.
+     * only items whose size changed are measured again.
+     */
+    private boolean adjustMatchParentMeasure(int space, boolean horizontal) {
+        final int matchSize = buildMatchOrder(getChildCount(), horizontal);
+        if (matchSize == 0) {
+            return false;
+        }
+        final long[] order = mMatchOrder;
+        long prefix = 0;
+        int fillCount = 0, level = 0, remain = 0;
+        while (fillCount < matchSize) {
+            prefix += order[fillCount] >>> 32;
+            fillCount++;
+            long total = prefix + space;
+            if (fillCount == matchSize || total <= (order[fillCount] >>> 32) * fillCount) {
+                level = (int) (total / fillCount);
+                remain = (int) (total - (long) level * fillCount);
+                break;
             }
         }
-    }
-
-    private boolean adjustMatchParentMeasure(float space, boolean horizontal) {
-        List<PointF> list = buildCacheMeasureSize(getChildCount(), horizontal);
-        int matchSize = list.size();
-        if (matchSize > 0) {
-            adjustMatchMeasureSize(matchSize, space);
-            for (PointF point : mPairList) {
-                View child = getChildAt((int) point.x);
+        for (int i = 0; i < fillCount; i++) {
+            final View child = getChildAt((int) order[i]);
+            final int oldSize = (int) (order[i] >>> 32);
+            final int goodSize = i < remain ? level + 1 : level;
+            if (goodSize != oldSize) {
                 LayoutParams params = (LayoutParams) child.getLayoutParams();
-                int goodSize = (int) point.y;
                 if (horizontal) {
-                    if (goodSize != params.width(child)) {
-                        child.measure(MeasureSpec.makeMeasureSpec(goodSize - params.leftMargin() - params.rightMargin(), MeasureSpec.EXACTLY)
-                                , MeasureSpec.makeMeasureSpec(child.getMeasuredHeight(), MeasureSpec.EXACTLY));
-                    }
+                    child.measure(MeasureSpec.makeMeasureSpec(goodSize - params.leftMargin() - params.rightMargin(), MeasureSpec.EXACTLY)
+                            , MeasureSpec.makeMeasureSpec(child.getMeasuredHeight(), MeasureSpec.EXACTLY));
                 } else {
-                    if (goodSize != params.height(child)) {
-                        child.measure(MeasureSpec.makeMeasureSpec(child.getMeasuredWidth(), MeasureSpec.EXACTLY)
-                                , MeasureSpec.makeMeasureSpec(goodSize - params.topMargin() - params.bottomMargin(), MeasureSpec.EXACTLY));
-                    }
+                    child.measure(MeasureSpec.makeMeasureSpec(child.getMeasuredWidth(), MeasureSpec.EXACTLY)
+                            , MeasureSpec.makeMeasureSpec(goodSize - params.topMargin() - params.bottomMargin(), MeasureSpec.EXACTLY));
                 }
             }
-            destroyCacheMeasureSize();
-            return true;
         }
-        return false;
+        return true;
     }
 
     @Override
@@ -574,6 +801,8 @@ public class PageScrollView extends ScrollLayout {
         } else {
             onLayoutVertical(contentLeft, contentTop, contentRight, contentBottom);
         }
+        ensurePageTable();
+        buildStickyTable();
     }
 
     protected void onLayoutVertical(int baseLeft, int baseTop, int baseRight, int baseBottom) {
@@ -600,18 +829,10 @@ public class PageScrollView extends ScrollLayout {
             mPageFooterView.layout(childLeft, childTop, childRight, childBottom);
         }
 
-        final int count = getChildCount(), mMiddleMargin = mBorderDivider.getContentMarginVertical();
-        childTop = baseTop;
-        for (int i = 0; i < count; i++) {
-            final View child = getChildAt(i);
-            if (skipVirtualChild(child, true)) continue;
-            LayoutParams params = (LayoutParams) child.getLayoutParams();
-            childTop += params.topMargin();
-            childBottom = childTop + child.getMeasuredHeight();
-            childLeft = getContentStartH(baseLeft, baseRight, child.getMeasuredWidth(), params.leftMargin(), params.rightMargin(), isChildCenter ? Gravity.CENTER : params.gravity);
-            childRight = childLeft + child.getMeasuredWidth();
-            child.layout(childLeft, childTop, childRight, childBottom);
-            childTop = childBottom + params.bottomMargin() + mMiddleMargin;
+        if (getViewProvider() != null) {
+            layoutVirtualItems(baseTop, baseLeft, baseRight, false);
+        } else if (!dispatchLayoutIncremental(baseTop, baseLeft, baseRight, false)) {
+            layoutItems(baseTop, baseLeft, baseRight, false);
         }
     }
 
@@ -639,24 +860,38 @@ public class PageScrollView extends ScrollLayout {
             mPageFooterView.layout(childLeft, childTop, childRight, childBottom);
         }
 
-        final int count = getChildCount(), mMiddleMargin = mBorderDivider.getContentMarginHorizontal();
-        childLeft = baseLeft;
-        for (int i = 0; i < count; i++) {
-            final View child = getChildAt(i);
-            if (skipVirtualChild(child, true)) continue;
-            LayoutParams params = (LayoutParams) child.getLayoutParams();
-            childLeft += params.leftMargin();
+        if (getViewProvider() != null) {
+            layoutVirtualItems(baseLeft, baseTop, baseBottom, true);
+        } else if (!dispatchLayoutIncremental(baseLeft, baseTop, baseBottom, true)) {
+            layoutItems(baseLeft, baseTop, baseBottom, true);
+        }
+    }
+
+    @Override
+    protected int layoutItem(View child, LayoutParams params, int slotStart, int crossStart, int crossEnd, int itemMargin, boolean horizontal) {
+        mPageTableDirty = true;
+        int childLeft, childTop, childRight, childBottom;
+        int gravity = isChildCenter ? Gravity.CENTER : params.gravity;
+        if (horizontal) {
+            childLeft = slotStart + params.leftMargin();
             childRight = childLeft + child.getMeasuredWidth();
-            childTop = getContentStartV(baseTop, baseBottom, child.getMeasuredHeight(), params.topMargin(), params.bottomMargin(), isChildCenter ? Gravity.CENTER : params.gravity);
+            childTop = getContentStartV(crossStart, crossEnd, child.getMeasuredHeight(), params.topMargin(), params.bottomMargin(), gravity);
             childBottom = childTop + child.getMeasuredHeight();
             child.layout(childLeft, childTop, childRight, childBottom);
-            childLeft = childRight + params.bottomMargin() + mMiddleMargin;
+            return childRight + params.rightMargin() + itemMargin;
+        } else {
+            childTop = slotStart + params.topMargin();
+            childBottom = childTop + child.getMeasuredHeight();
+            childLeft = getContentStartH(crossStart, crossEnd, child.getMeasuredWidth(), params.leftMargin(), params.rightMargin(), gravity);
+            childRight = childLeft + child.getMeasuredWidth();
+            child.layout(childLeft, childTop, childRight, childBottom);
+            return childBottom + params.bottomMargin() + itemMargin;
         }
     }
 
     @Override
     protected void doBeforeDraw(Canvas canvas, Rect inset) {
-        boolean swapIndexEnable = mFloatViewStartIndex >= 0 && mSwapViewIndex >= 0;
+        boolean swapIndexEnable = (mFloatViewStartIndex >= 0 && mSwapViewIndex >= 0) || mStickyActiveView != null;
         if (swapIndexEnable && isChildrenDrawingOrderEnabled() == false) {
             setChildrenDrawingOrderEnabled(true);
         } else {
@@ -669,6 +904,13 @@ public class PageScrollView extends ScrollLayout {
     @Override
     protected int getChildDrawingOrder(int childCount, int i) {
         int order = i;
+        if (mStickyActiveView != null && mStickyActiveChild >= 0 && mStickyActiveChild < childCount) {
+            //active sticky view is drawn last.
+            if (i == childCount - 1) {
+                return mStickyActiveChild;
+            }
+            return i < mStickyActiveChild ? i : i + 1;
+        }
         if (mFloatViewStartIndex >= 0 && mSwapViewIndex >= 0) {
             if (mFloatViewStartIndex == i) {
                 return mSwapViewIndex;
@@ -706,9 +948,14 @@ public class PageScrollView extends ScrollLayout {
             velocity = -(int) Math.signum(moved);
         }
         int targetIndex = mCurrItem;
-        int itemSize = horizontal ? getChildAt(mCurrItem).getWidth() : getChildAt(mCurrItem).getHeight();
+        int itemSize;
+        if (getViewProvider() != null) {
+            itemSize = getVirtualItemExtent(mCurrItem);
+        } else {
+            itemSize = horizontal ? getChildAt(mCurrItem).getWidth() : getChildAt(mCurrItem).getHeight();
+        }
         int absVelocity = velocity > 0 ? velocity : -velocity;
-        int pageItemCount = getItemViewCount();
+        int pageItemCount = getPageCount();
         if (Math.abs(moved) > mTouchSlop) {
             int halfItemSize = itemSize / 2;
             if (absVelocity > mMinFlingVelocity) {
@@ -727,26 +974,80 @@ public class PageScrollView extends ScrollLayout {
                 }
             }
         }
+        int settleVelocity = 0;
+        //only a fling already moved to the next page by direction goes further,a weak fling still settles back.
+        if (targetIndex != mCurrItem && absVelocity > mMinFlingVelocity) {
+            absVelocity = Math.min(absVelocity, mMaxFlingVelocity);
+            int projected = scrolled + (int) Math.signum(velocity) * Math.round(getFlingPhysics().getFlingDistance(absVelocity));
+            int snapIndex = computeSnapItem(projected, horizontal);
+            if (mFlingPageLimit > 0) {
+                snapIndex = Math.max(mCurrItem - mFlingPageLimit, Math.min(mCurrItem + mFlingPageLimit, snapIndex));
+            }
+            //never land behind the page decided by direction.
+            targetIndex = velocity > 0 ? Math.max(targetIndex, snapIndex) : Math.min(targetIndex, snapIndex);
+            targetIndex = Math.max(0, Math.min(pageItemCount - 1, targetIndex));
+            settleVelocity = absVelocity;
+        }
         int targetScroll = computeScrollOffset(targetIndex, 0, true, horizontal);
         if ((willScroll = targetScroll - scrolled) != 0) {
-            scrollToCentre(targetIndex, 0, -1);
+            int duration = settleVelocity == 0 ? -1 : computeSettleDuration(horizontal ? willScroll : 0, horizontal ? 0 : willScroll
+                    , horizontal ? settleVelocity : 0, horizontal ? 0 : settleVelocity);
+            scrollToItem(targetIndex, 0, duration, true);
         }
         return willScroll;
     }
 
+    /**
+     * page whose centre is nearest to the centre of visible content bounds when scrolled to the offset,
+     * binary searched in offsets of virtual items or page table.
+     */
+    private int computeSnapItem(int scrolled, boolean horizontal) {
+        int index;
+        if (getViewProvider() != null) {
+            index = getVirtualItemPositionAt(scrolled, true);
+            if (index < 0) {
+                return mCurrItem;
+            }
+            int distance = Math.abs(computeVirtualScrollOffset(index, true) - scrolled);
+            if (index + 1 < getVirtualItemCount() && Math.abs(computeVirtualScrollOffset(index + 1, true) - scrolled) < distance) {
+                index++;
+            }
+            return index;
+        }
+        ensurePageTable();
+        if (mPageTableCount == 0) {
+            return mCurrItem;
+        }
+        Rect visibleBounds = getVisibleContentBounds();
+        int centre = scrolled + (horizontal ? (visibleBounds.centerX() - visibleBounds.left) : (visibleBounds.centerY() - visibleBounds.top));
+        int low = 0, high = mPageTableCount - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mPageTable[mid * PAGE_TABLE_STRIDE + 3] < centre) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low > 0 && centre - mPageTable[(low - 1) * PAGE_TABLE_STRIDE + 3] < Math.abs(mPageTable[low * PAGE_TABLE_STRIDE + 3] - centre)) {
+            low--;
+        }
+        return low;
+    }
+
 
     public void scrollTo(int index, int offset, int duration) {
-        scrollToItem(index, offset, duration, false);
+        scrollToItem(toRingPosition(index), offset, duration, false);
     }
 
     public void scrollToCentre(int index, int offset, int duration) {
-        scrollToItem(index, offset, duration, true);
+        scrollToItem(toRingPosition(index), offset, duration, true);
     }
 
     public void scrollTo(View child, int offset, int duration, boolean centerInParent) {
         int pageIndex = indexOfItemView(child);
         if (pageIndex != -1) {
-            scrollToItem(pageIndex, offset, duration, centerInParent);
+            scrollToItem(pageIndex + getFirstPagePosition(), offset, duration, centerInParent);
         }
     }
 
@@ -771,8 +1072,100 @@ public class PageScrollView extends ScrollLayout {
     }
 
     protected int computeScrollOffset(int childPosition, int offset, boolean centreWithParent, boolean horizontal) {
-        View child = getVirtualChildAt(childPosition, true);
-        return child == null ? 0 : computeScrollOffset(child, offset, centreWithParent, horizontal);
+        if (getViewProvider() != null) {
+            int scrollRange = horizontal ? getHorizontalScrollRange() : getVerticalScrollRange();
+            int targetScroll = computeVirtualScrollOffset(childPosition, centreWithParent) + offset;
+            return Math.max(0, Math.min(scrollRange, targetScroll));
+        }
+        ensurePageTable();
+        if (childPosition < 0 || childPosition >= mPageTableCount) {
+            return 0;
+        }
+        int scrollRange, targetScroll;
+        Rect visibleBounds = getVisibleContentBounds();
+        if (horizontal) {
+            targetScroll = centreWithParent ? (mPageTable[childPosition * PAGE_TABLE_STRIDE + 3] - visibleBounds.centerX() + visibleBounds.left)
+                    : mPageTable[childPosition * PAGE_TABLE_STRIDE + 2];
+            scrollRange = getHorizontalScrollRange();
+        } else {
+            targetScroll = centreWithParent ? (mPageTable[childPosition * PAGE_TABLE_STRIDE + 3] - visibleBounds.centerY() + visibleBounds.top)
+                    : mPageTable[childPosition * PAGE_TABLE_STRIDE + 2];
+            scrollRange = getVerticalScrollRange();
+        }
+        return Math.max(0, Math.min(scrollRange, targetScroll + offset));
+    }
+
+    /**
+     * rebuild page table from item views if any of them is laid out again,offsets are the same as {@link #offsetX(View, boolean, boolean)}.
+     */
+    private void ensurePageTable() {
+        final boolean horizontal = isOrientationHorizontal();
+        final int itemCount = getItemViewCount();
+        if (!mPageTableDirty && mPageTableCount == itemCount && mPageTableHorizontal == horizontal) {
+            return;
+        }
+        if (mPageTable.length < itemCount * PAGE_TABLE_STRIDE) {
+            mPageTable = new int[(itemCount + (itemCount >> 1)) * PAGE_TABLE_STRIDE];
+        }
+        final int[] table = mPageTable;
+        final int paddingStart = horizontal ? getPaddingLeft() : getPaddingTop();
+        for (int i = 0; i < itemCount; i++) {
+            View child = getItemView(i);
+            LayoutParams params = (LayoutParams) child.getLayoutParams();
+            int start, end, marginStart, marginEnd, index = i * PAGE_TABLE_STRIDE;
+            if (horizontal) {
+                start = child.getLeft();
+                end = child.getRight();
+                marginStart = params.leftMargin;
+                marginEnd = params.rightMargin;
+            } else {
+                start = child.getTop();
+                end = child.getBottom();
+                marginStart = params.topMargin;
+                marginEnd = params.bottomMargin;
+            }
+            table[index] = start;
+            table[index + 1] = end;
+            table[index + 2] = start - marginStart - paddingStart;
+            table[index + 3] = ((start + end) >> 1) + (marginEnd - marginStart) / 2 - paddingStart;
+            table[index + 4] = horizontal ? params.width(child) : params.height(child);
+        }
+        mTransformCount = 0;
+        mPageTableCount = itemCount;
+        mPageTableHorizontal = horizontal;
+        mPageTableDirty = false;
+    }
+
+    /**
+     * first item whose end is after the offset,item count if none.
+     */
+    private int pageEndAfter(int offset) {
+        int low = 0, high = mPageTableCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mPageTable[mid * PAGE_TABLE_STRIDE + 1] > offset) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * last item whose start is before the offset,-1 if none.
+     */
+    private int pageStartBefore(int offset) {
+        int low = -1, high = mPageTableCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mPageTable[mid * PAGE_TABLE_STRIDE] < offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
     }
 
     @Override
@@ -794,13 +1187,18 @@ public class PageScrollView extends ScrollLayout {
     private boolean setCurrentItem(int willItem) {
         if (mCurrItem != willItem || mPrevItem == -1) {
             int preItem = mCurrItem == willItem ? mPrevItem : mCurrItem;
+            boolean pageChanged = mPrevItem == -1 || toPagePosition(willItem) != toPagePosition(mCurrItem);
             mPrevItem = mCurrItem;
             mCurrItem = willItem;
-            if (isLogAccess()) {
-                print("select", String.format("selectChange  $$$$:%d >>>>>>>>> %d", preItem, mCurrItem));
-            }
-            if (mPageListener != null) {
-                mPageListener.onPageSelected(willItem, preItem);
+            if (pageChanged) {
+                willItem = toPagePosition(willItem);
+                preItem = toPagePosition(preItem);
+                if (!trace(LayoutTrace.EVENT_PAGE_SELECTED, LayoutTrace.PHASE_SCROLL, willItem, preItem, 0, 0) && isLogAccess()) {
+                    print("select", String.format("selectChange  $$$$:%d >>>>>>>>> %d", preItem, willItem));
+                }
+                if (mPageListener != null) {
+                    mPageListener.onPageSelected(willItem, preItem);
+                }
             }
             return true;
         }
@@ -812,6 +1210,9 @@ public class PageScrollView extends ScrollLayout {
         if (mPageListener != null) {
             mPageListener.onScrollStateChanged(newState, prevState);
         }
+        if (newState == SCROLL_STATE_IDLE && isCircularMode() && isAttachLayoutFinished()) {
+            rebaseCircular();
+        }
         if (mPageTransformer != null) {
             // PageTransformers can do complex things that benefit from hardware layers.
             enableLayers(newState != SCROLL_STATE_IDLE);
@@ -820,6 +1221,7 @@ public class PageScrollView extends ScrollLayout {
 
     @Override
     protected void onScrollChanged(int scrollX, int scrollY, Rect visibleBounds, boolean fromScrollChanged) {
+        super.onScrollChanged(scrollX, scrollY, visibleBounds, fromScrollChanged);
         mNeedResolveFloatOffset = false;
         boolean horizontal = isOrientationHorizontal();
         int scrolled = horizontal ? scrollX : scrollY;
@@ -833,10 +1235,13 @@ public class PageScrollView extends ScrollLayout {
         if (mFloatViewStartMode == FLOAT_VIEW_SCROLL || mFloatViewEndMode == FLOAT_VIEW_SCROLL) {
             updatePositionForFloatView(scrolled, horizontal);
         }
+        if (mStickyCount > 0) {
+            updateStickyViews(horizontal);
+        }
         if (mPageListener != null || mPageTransformer != null) {
             resolvePageOffset(scrolled, horizontal);
         }
-        if (isLogAccess()) {
+        if (getLayoutTrace() == null && isLogAccess()) {
             StringBuilder sb = new StringBuilder(32);
             sb.append("scrollX=").append(scrollX);
             sb.append(",scrollY=").append(scrollY).append(",visibleBounds=").append(visibleBounds);
@@ -847,27 +1252,94 @@ public class PageScrollView extends ScrollLayout {
 
     protected int computeSwapViewIndex(int scrolled, boolean horizontal) {
         if (mFloatViewStartIndex >= 0) {
-            int count = getChildCount(), baseLine;
             View view = getChildAt(mFloatViewStartIndex);
-            baseLine = (horizontal ? view.getRight() : view.getBottom()) + scrolled;
-            for (int i = mFloatViewStartIndex + 1; i < count; i++) {
-                final View child = getChildAt(i);
-                if (skipVirtualChild(child, true))
-                    continue;
-                if (horizontal) {
-                    if (child.getRight() >= baseLine) {
-                        return i;
-                    }
-                } else {
-                    if (child.getBottom() >= baseLine) {
-                        return i;
-                    }
-                }
+            int baseLine = (horizontal ? view.getRight() : view.getBottom()) + scrolled;
+            ensurePageTable();
+            //first item after float view whose end reaches base line.
+            int itemIndex = Math.max(pageEndAfter(baseLine - 1), getVirtualIndexOfChild(mFloatViewStartIndex) + 1);
+            if (itemIndex < mPageTableCount) {
+                return getChildIndexOfVirtual(itemIndex);
             }
         }
         return -1;
     }
 
+    /**
+     * collect bounds of sticky items from page table,sticky items are in item order so starts are sorted.
+     */
+    private void buildStickyTable() {
+        final int[] positions = mStickyPositions;
+        int count = 0;
+        if (positions.length > 0 && getViewProvider() == null) {
+            if (mStickyTable.length < positions.length * STICKY_TABLE_STRIDE) {
+                mStickyTable = new int[positions.length * STICKY_TABLE_STRIDE];
+            }
+            for (int i = 0; i < positions.length && positions[i] < mPageTableCount; i++) {
+                int row = positions[i] * PAGE_TABLE_STRIDE, index = count * STICKY_TABLE_STRIDE;
+                mStickyTable[index] = mPageTable[row];
+                mStickyTable[index + 1] = mPageTable[row + 1];
+                mStickyTable[index + 2] = getChildIndexOfVirtual(positions[i]);
+                count++;
+            }
+        }
+        mStickyCount = count;
+    }
+
+    /**
+     * the active sticky item is the last one starting before visible start,it's pinned there
+     * until the end of it meets the start of the next sticky item. only the active one is translated.
+     */
+    private void updateStickyViews(boolean horizontal) {
+        final Rect visibleBounds = getVisibleContentBounds();
+        final int visibleStart = horizontal ? visibleBounds.left : visibleBounds.top;
+        final int[] table = mStickyTable;
+        int low = -1, high = mStickyCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (table[mid * STICKY_TABLE_STRIDE] <= visibleStart) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        View activeView = null;
+        int translated = 0, activeChild = -1;
+        if (low >= 0) {
+            final int index = low * STICKY_TABLE_STRIDE;
+            translated = visibleStart - table[index];
+            if (low + 1 < mStickyCount) {
+                translated = Math.min(translated, table[index + STICKY_TABLE_STRIDE] - table[index + 1]);
+            }
+            translated = Math.max(0, translated);
+            activeChild = table[index + 2];
+            activeView = getChildAt(activeChild);
+        }
+        if (activeView != mStickyActiveView) {
+            resetStickyActiveView();
+            mStickyActiveView = activeView;
+            invalidate();
+        }
+        mStickyActiveChild = activeChild;
+        if (activeView != null) {
+            if (horizontal) {
+                if (activeView.getTranslationX() != translated) {
+                    activeView.setTranslationX(translated);
+                }
+            } else if (activeView.getTranslationY() != translated) {
+                activeView.setTranslationY(translated);
+            }
+        }
+    }
+
+    private void resetStickyActiveView() {
+        if (mStickyActiveView != null) {
+            mStickyActiveView.setTranslationX(0);
+            mStickyActiveView.setTranslationY(0);
+            mStickyActiveView = null;
+        }
+        mStickyActiveChild = -1;
+    }
+
     protected void resetPositionForFloatView(int realChildIndex, boolean horizontal) {
         View child = realChildIndex >= 0 ? getChildAt(realChildIndex) : null;
         if (child != null) {
@@ -948,28 +1420,13 @@ public class PageScrollView extends ScrollLayout {
             visibleStart = visibleBounds.top;
             visibleEnd = visibleBounds.bottom;
         }
-        int childCount = getChildCount(), counted = 0;
+        ensurePageTable();
         int firstVisible = -1, lastVisible = -1;
-        boolean visible;
-        for (int i = 0; i < childCount; i++) {
-            final View child = getChildAt(i);
-            if (skipVirtualChild(child, true)) continue;
-            if (horizontal) {
-                visible = !((child.getRight() <= visibleStart) || child.getLeft() >= visibleEnd);
-            } else {
-                visible = !((child.getBottom() <= visibleStart) || child.getTop() >= visibleEnd);
-            }
-            if (visible) {
-                if (firstVisible == -1) {
-                    firstVisible = counted;
-                }
-                lastVisible = counted;
-            } else {
-                if (firstVisible >= 0) {
-                    break;
-                }
-            }
-            counted++;
+        int first = pageEndAfter(visibleStart);
+        if (first < mPageTableCount && mPageTable[first * PAGE_TABLE_STRIDE] < visibleEnd) {
+            int firstPosition = getFirstPagePosition();
+            firstVisible = firstPosition + first;
+            lastVisible = firstPosition + pageStartBefore(visibleEnd);
         }
         if (firstVisible != -1) {
             if (firstVisible != mFirstVisiblePosition || lastVisible != mLastVisiblePosition) {
@@ -977,11 +1434,12 @@ public class PageScrollView extends ScrollLayout {
                 int oldLastVisible = mLastVisiblePosition;
                 mFirstVisiblePosition = firstVisible;
                 mLastVisiblePosition = lastVisible;
-                if (isLogAccess()) {
+                if (!trace(LayoutTrace.EVENT_VISIBLE_RANGE, LayoutTrace.PHASE_SCROLL, firstVisible, lastVisible, oldFirstVisible, oldLastVisible) && isLogAccess()) {
                     print("range", String.format("visibleRangeChanged  ****:[%d , %d]", firstVisible, lastVisible));
                 }
                 if (mOnVisibleRangeChangeListener != null) {
-                    mOnVisibleRangeChangeListener.onVisibleRangeChanged(firstVisible, lastVisible, oldFirstVisible, oldLastVisible);
+                    mOnVisibleRangeChangeListener.onVisibleRangeChanged(toPagePosition(firstVisible), toPagePosition(lastVisible)
+                            , toPagePosition(oldFirstVisible), toPagePosition(oldLastVisible));
                 }
             }
         }
@@ -989,7 +1447,7 @@ public class PageScrollView extends ScrollLayout {
 
     private void resolvePageOffset(int scrolled, boolean horizontal) {
         int targetOffset = computeScrollOffset(mCurrItem, 0, true, horizontal);
-        int prevIndex = mCurrItem, itemCount = getItemViewCount();
+        int prevIndex = mCurrItem, itemCount = getPageCount();
         if (scrolled > targetOffset && prevIndex < itemCount - 1) {
             prevIndex++;
         }
@@ -1016,36 +1474,73 @@ public class PageScrollView extends ScrollLayout {
             positionOffset = positionOffsetPixels / (float) distance;
         }
         if (mPageListener != null) {
-            mPageListener.onPageScrolled(minIndex, positionOffset, positionOffsetPixels);
+            mPageListener.onPageScrolled(toPagePosition(minIndex), positionOffset, positionOffsetPixels);
         }
         if (mPageTransformer != null) {
             dispatchTransformPosition(scrolled, itemCount, horizontal);
         }
     }
 
+    /**
+     * compute transform positions of pages around visible ones from page table once a frame,
+     * then transform the pages whose position changed since the last frame.
+     */
     private void dispatchTransformPosition(int scrolled, int itemCount, boolean horizontal) {
-        int childCount = getChildCount(), pageItemIndex = 0;
-        int mMiddleMargin = horizontal ? mBorderDivider.getContentMarginHorizontal() : mBorderDivider.getContentMarginVertical();
-        int pageItemStart = Math.max(0, mFirstVisiblePosition - 1);
-        int pageItemEnd = Math.min(itemCount - 1, mLastVisiblePosition + 1);
-        for (int i = 0; i < childCount && pageItemIndex <= pageItemEnd; i++) {
-            View child = getChildAt(i);
-            if (skipVirtualChild(child, true))
-                continue;
-            if (pageItemIndex >= pageItemStart) {
-                LayoutParams params = (LayoutParams) child.getLayoutParams();
-                int contentLength = horizontal ? params.width(child) : params.height(child);
-                if (mMiddleMargin > 0) {
-                    if (pageItemIndex == 0 || pageItemIndex == itemCount - 1) {
-                        contentLength += (mMiddleMargin / 2);
-                    } else {
-                        contentLength += mMiddleMargin;
-                    }
+        ensurePageTable();
+        final int firstPosition = getFirstPagePosition();
+        final int middleMargin = horizontal ? mBorderDivider.getContentMarginHorizontal() : mBorderDivider.getContentMarginVertical();
+        final int pageItemStart = Math.max(firstPosition, mFirstVisiblePosition - 1);
+        final int pageItemEnd = Math.min(Math.min(itemCount, firstPosition + mPageTableCount) - 1, mLastVisiblePosition + 1);
+        final int count = Math.max(0, pageItemEnd - pageItemStart + 1);
+        float[] positions = mTransformLastPositions;
+        mTransformLastPositions = mTransformPositions;
+        mTransformLastFirst = mTransformFirst;
+        mTransformLastCount = mTransformCount;
+        if (positions.length < count) {
+            positions = new float[count + (count >> 1)];
+        }
+        final Rect visibleBounds = getVisibleContentBounds();
+        final int centre = horizontal ? (visibleBounds.centerX() - visibleBounds.left) : (visibleBounds.centerY() - visibleBounds.top);
+        final int scrollRange = horizontal ? getHorizontalScrollRange() : getVerticalScrollRange();
+        for (int k = 0; k < count; k++) {
+            final int pageItemIndex = pageItemStart + k, row = (pageItemIndex - firstPosition) * PAGE_TABLE_STRIDE;
+            int contentLength = mPageTable[row + 4];
+            if (middleMargin > 0) {
+                if (pageItemIndex == 0 || pageItemIndex == itemCount - 1) {
+                    contentLength += (middleMargin / 2);
+                } else {
+                    contentLength += middleMargin;
                 }
-                float transformerPosition = (scrolled - computeScrollOffset(child, 0, true, horizontal)) / (float) contentLength;
-                mPageTransformer.transformPage(child, transformerPosition, horizontal);
             }
-            pageItemIndex++;
+            final int pageOffset = Math.max(0, Math.min(scrollRange, mPageTable[row + 3] - centre));
+            positions[k] = (scrolled - pageOffset) / (float) Math.max(1, contentLength);
+        }
+        mTransformPositions = positions;
+        mTransformFirst = pageItemStart;
+        mTransformCount = count;
+        for (int k = 0; k < count; k++) {
+            final int pageItemIndex = pageItemStart + k, last = pageItemIndex - mTransformLastFirst;
+            if (last >= 0 && last < mTransformLastCount && mTransformLastPositions[last] == positions[k]) {
+                continue;
+            }
+            mPageTransformer.transformPage(getItemView(pageItemIndex - firstPosition), positions[k], horizontal);
+        }
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        Parcelable state = super.onSaveInstanceState();
+        if (state instanceof SavedState) {
+            ((SavedState) state).selectedPosition = mRestoreItem >= 0 ? mRestoreItem : getCurrentItem();
+        }
+        return state;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        super.onRestoreInstanceState(state);
+        if (state instanceof SavedState) {
+            mRestoreItem = ((SavedState) state).selectedPosition;
         }
     }
 
@@ -1058,6 +1553,12 @@ public class PageScrollView extends ScrollLayout {
         mPrevItem = -1;
     }
 
+    @Override
+    protected void adjustVirtualAttachRange(int itemCount, int[] range) {
+        range[0] = Math.min(range[0], mCurrItem - mOffscreenPageLimit);
+        range[1] = Math.max(range[1], mCurrItem + mOffscreenPageLimit);
+    }
+
     @Override
     protected boolean skipVirtualChild(View child, boolean withoutGone) {
         return super.skipVirtualChild(child, withoutGone) || (child == mPageHeaderView || child == mPageFooterView);
@@ -1069,6 +1570,73 @@ public class PageScrollView extends ScrollLayout {
         void recoverTransformPage(View view, boolean horizontal);
     }
 
+    /**
+     * view properties a {@link PropertyPageTransformer} writes for a page,identity after {@link #reset()}.
+     */
+    public static final class PageProperties {
+        /**
+         * change of alpha and scale smaller than it is not applied.
+         */
+        public static final float EPSILON = 0.001f;
+        /**
+         * change of translation in pixels and rotation in degrees smaller than it is not applied.
+         */
+        public static final float EPSILON_PIXEL = 0.1f;
+
+        public float alpha, translationX, translationY, scaleX, scaleY, rotation, rotationX, rotationY;
+
+        public PageProperties() {
+            reset();
+        }
+
+        public void reset() {
+            alpha = scaleX = scaleY = 1;
+            translationX = translationY = rotation = rotationX = rotationY = 0;
+        }
+
+        /**
+         * set properties changed beyond epsilon to view,unchanged views are not invalidated.
+         */
+        public void applyTo(View view) {
+            if (Math.abs(view.getAlpha() - alpha) > EPSILON) view.setAlpha(alpha);
+            if (Math.abs(view.getScaleX() - scaleX) > EPSILON) view.setScaleX(scaleX);
+            if (Math.abs(view.getScaleY() - scaleY) > EPSILON) view.setScaleY(scaleY);
+            if (Math.abs(view.getTranslationX() - translationX) > EPSILON_PIXEL) view.setTranslationX(translationX);
+            if (Math.abs(view.getTranslationY() - translationY) > EPSILON_PIXEL) view.setTranslationY(translationY);
+            if (Math.abs(view.getRotation() - rotation) > EPSILON_PIXEL) view.setRotation(rotation);
+            if (Math.abs(view.getRotationX() - rotationX) > EPSILON_PIXEL) view.setRotationX(rotationX);
+            if (Math.abs(view.getRotationY() - rotationY) > EPSILON_PIXEL) view.setRotationY(rotationY);
+        }
+    }
+
+    /**
+     * transformer only computes properties of a page into a reused {@link PageProperties},
+     * the properties are applied to the page when they changed beyond epsilon.
+     */
+    public static abstract class PropertyPageTransformer implements PageTransformer {
+        private final PageProperties mProperties = new PageProperties();
+
+        /**
+         * @param properties identity properties to write.
+         * @param position   position of page,0 at centre,-1 and 1 one page before and after.
+         * @param pageSize   size of page along scroll orientation.
+         */
+        public abstract void transformPage(PageProperties properties, float position, int pageSize, boolean horizontal);
+
+        @Override
+        public final void transformPage(View view, float position, boolean horizontal) {
+            mProperties.reset();
+            transformPage(mProperties, position, horizontal ? view.getWidth() : view.getHeight(), horizontal);
+            mProperties.applyTo(view);
+        }
+
+        @Override
+        public void recoverTransformPage(View view, boolean horizontal) {
+            mProperties.reset();
+            mProperties.applyTo(view);
+        }
+    }
+
     public interface OnPageChangeListener extends OnScrollChangeListener {
 
         void onPageScrolled(int position, float positionOffset, int positionOffsetPixels);
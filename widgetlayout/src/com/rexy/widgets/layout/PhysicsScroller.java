@@ -0,0 +1,186 @@
+package com.rexy.widgets.layout;
+
+import android.view.animation.AnimationUtils;
+import android.view.animation.Interpolator;
+
+/**
+ * a two dimension scroller drives fling by {@link FlingPhysics} and settle by an {@link Interpolator}.
+ * one instance serves all flings and settles,changing physics or interpolator allocates nothing.
+ * all positions are computed by {@link #computeScrollOffset(long)} from a given time,
+ * {@link #computeScrollOffset()} feeds it with animation time.
+ *
+ * @author: rexy
+ */
+class PhysicsScroller {
+    private static final int MODE_SCROLL = 0;
+    private static final int MODE_FLING = 1;
+
+    /**
+     * sin((f-0.5)*0.3*PI/2) sampled at f in [0,1],used to compute settle duration by distance.
+     */
+    private static final float[] SNAP_INFLUENCE = new float[FlingPhysics.TableFlingPhysics.NB_SAMPLES + 1];
+
+    static {
+        final int samples = FlingPhysics.TableFlingPhysics.NB_SAMPLES;
+        for (int i = 0; i <= samples; i++) {
+            SNAP_INFLUENCE[i] = (float) Math.sin((i / (float) samples - 0.5f) * 0.3f * Math.PI / 2.0f);
+        }
+    }
+
+    private FlingPhysics mPhysics;
+    private Interpolator mInterpolator;
+    private int mMode;
+    private boolean mFinished = true;
+    private long mStartTime;
+    private int mDuration;
+    private int mStartX, mStartY;
+    private int mFinalX, mFinalY;
+    private int mCurrX, mCurrY;
+    private float mDistance;
+    private float mCoeffX, mCoeffY;
+    private float mCurrVelocity;
+
+    PhysicsScroller(FlingPhysics physics, Interpolator interpolator) {
+        mPhysics = physics;
+        mInterpolator = interpolator;
+    }
+
+    static float snapDistanceInfluence(float fraction) {
+        final int samples = FlingPhysics.TableFlingPhysics.NB_SAMPLES;
+        fraction = Math.max(0, Math.min(1, fraction));
+        final int index = (int) (fraction * samples);
+        if (index >= samples) {
+            return SNAP_INFLUENCE[samples];
+        }
+        return SNAP_INFLUENCE[index] + (fraction * samples - index) * (SNAP_INFLUENCE[index + 1] - SNAP_INFLUENCE[index]);
+    }
+
+    void setPhysics(FlingPhysics physics) {
+        mPhysics = physics;
+    }
+
+    FlingPhysics getPhysics() {
+        return mPhysics;
+    }
+
+    void setInterpolator(Interpolator interpolator) {
+        mInterpolator = interpolator;
+    }
+
+    Interpolator getInterpolator() {
+        return mInterpolator;
+    }
+
+    boolean isFinished() {
+        return mFinished;
+    }
+
+    int getCurrX() {
+        return mCurrX;
+    }
+
+    int getCurrY() {
+        return mCurrY;
+    }
+
+    int getFinalX() {
+        return mFinalX;
+    }
+
+    int getFinalY() {
+        return mFinalY;
+    }
+
+    int getDuration() {
+        return mDuration;
+    }
+
+    /**
+     * current velocity in pixels per second of a fling,0 for settle.
+     */
+    float getCurrVelocity() {
+        return mMode == MODE_FLING ? mCurrVelocity : 0;
+    }
+
+    void startScroll(int startX, int startY, int dx, int dy, int duration) {
+        startScroll(startX, startY, dx, dy, duration, AnimationUtils.currentAnimationTimeMillis());
+    }
+
+    void startScroll(int startX, int startY, int dx, int dy, int duration, long startTime) {
+        mMode = MODE_SCROLL;
+        mFinished = false;
+        mStartTime = startTime;
+        mDuration = duration;
+        mStartX = mCurrX = startX;
+        mStartY = mCurrY = startY;
+        mFinalX = startX + dx;
+        mFinalY = startY + dy;
+        mCurrVelocity = 0;
+    }
+
+    void fling(int startX, int startY, int velocityX, int velocityY) {
+        fling(startX, startY, velocityX, velocityY, AnimationUtils.currentAnimationTimeMillis());
+    }
+
+    void fling(int startX, int startY, int velocityX, int velocityY, long startTime) {
+        final float velocity = (float) Math.hypot(velocityX, velocityY);
+        mMode = MODE_FLING;
+        mStartTime = startTime;
+        mStartX = mCurrX = startX;
+        mStartY = mCurrY = startY;
+        mCoeffX = velocity == 0 ? 1.0f : velocityX / velocity;
+        mCoeffY = velocity == 0 ? 1.0f : velocityY / velocity;
+        mDistance = mPhysics.getFlingDistance(velocity);
+        mDuration = mPhysics.getFlingDuration(velocity);
+        mFinalX = startX + Math.round(mDistance * mCoeffX);
+        mFinalY = startY + Math.round(mDistance * mCoeffY);
+        mCurrVelocity = velocity;
+        mFinished = mDuration <= 0;
+        if (mFinished) {
+            mCurrX = mFinalX;
+            mCurrY = mFinalY;
+        }
+    }
+
+    boolean computeScrollOffset() {
+        return computeScrollOffset(AnimationUtils.currentAnimationTimeMillis());
+    }
+
+    /**
+     * update current position to the given time.
+     *
+     * @return false if it's finished before.
+     */
+    boolean computeScrollOffset(long currentTime) {
+        if (mFinished) {
+            return false;
+        }
+        final long elapsed = currentTime - mStartTime;
+        if (elapsed >= mDuration) {
+            mCurrX = mFinalX;
+            mCurrY = mFinalY;
+            mCurrVelocity = 0;
+            mFinished = true;
+            return true;
+        }
+        final float t = elapsed / (float) mDuration;
+        if (mMode == MODE_FLING) {
+            final float distance = mDistance * mPhysics.getFlingPosition(t);
+            mCurrX = mStartX + Math.round(distance * mCoeffX);
+            mCurrY = mStartY + Math.round(distance * mCoeffY);
+            mCurrVelocity = Math.abs(mDistance) * mPhysics.getFlingVelocity(t) * 1000f / mDuration;
+        } else {
+            final float x = mInterpolator == null ? t : mInterpolator.getInterpolation(t);
+            mCurrX = mStartX + Math.round(x * (mFinalX - mStartX));
+            mCurrY = mStartY + Math.round(x * (mFinalY - mStartY));
+        }
+        return true;
+    }
+
+    void abortAnimation() {
+        mCurrX = mFinalX;
+        mCurrY = mFinalY;
+        mCurrVelocity = 0;
+        mFinished = true;
+    }
+}
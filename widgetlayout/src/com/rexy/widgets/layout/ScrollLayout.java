@@ -3,6 +3,11 @@ package com.rexy.widgets.layout;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Rect;
+import android.os.Build;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.support.v4.view.MotionEventCompat;
 import android.support.v4.view.NestedScrollingChild;
 import android.support.v4.view.NestedScrollingChildHelper;
@@ -10,14 +15,23 @@ import android.support.v4.view.ScrollingView;
 import android.support.v4.view.VelocityTrackerCompat;
 import android.support.v4.view.ViewCompat;
 import android.support.v4.widget.EdgeEffectCompat;
-import android.support.v4.widget.ScrollerCompat;
 import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.view.Choreographer;
 import android.view.MotionEvent;
 import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.view.animation.AnimationUtils;
 import android.view.animation.Interpolator;
 
+import com.rexy.widgetlayout.R;
+import com.rexy.widgets.adapter.ItemProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
 /**
  * 支持容器内容自身的gravity,maxWidth,maxHeight.
  * 支持直接子 View 的 layout_gravity,maxWidth,maxHeight 等。
@@ -67,11 +81,111 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
     private final int[] mScrollOffset = new int[2];
     private final int[] mScrollConsumed = new int[2];
     private final int[] mNestedOffsets = new int[2];
+    /**
+     * a nested parent accepted the current nested scroll,nested dispatch is skipped if not.
+     */
+    private boolean mNestedScrollAccepted = false;
+
+    private boolean mTouchResampleEnable = false;
+    private final TouchResampler mTouchResampler = new TouchResampler();
+    private final float[] mResampledTouch = new float[2];
+    private boolean mResampleScheduled = false;
+    /**
+     * frame callback before {@link Build.VERSION_CODES#JELLY_BEAN},frame time is read by {@link AnimationUtils} then.
+     */
+    private Runnable mResampleRunnable;
+    private Choreographer.FrameCallback mResampleFrameCallback;
 
     private NestedScrollingChildHelper mScrollingChildHelper;
 
     private EdgeEffectCompat mLeftGlow, mTopGlow, mRightGlow, mBottomGlow;
 
+    private final int[] mItemMeasureResult = new int[3];
+    private boolean mIncrementalLayoutEnable = true;
+    private boolean mIncrementalMeasured = false;
+    private boolean mItemLayoutRecorded = false;
+    /**
+     * item start of last layout indexed by item position,it has one more element as the end of last item.
+     * item extents are read from {@link #getItemStore()}.
+     */
+    private int[] mItemStart;
+    private int mItemRecordCount = -1, mItemRecordChildCount;
+    private int mItemRecordWidthSpec, mItemRecordHeightSpec, mItemRecordState;
+    private final int[] mItemLayoutBase = new int[3];
+
+    private static final int TAG_VIEW_TYPE = R.id.widgetLayoutViewIndexType;
+    private static final int MAX_SCRAP_EACH_TYPE = 8;
+    private ItemProvider.ViewProvider mViewProvider;
+    /**
+     * extents of all provider items indexed by item position,unknown ones are estimated.
+     */
+    private final ItemOffsetIndex mVirtualIndex = new ItemOffsetIndex();
+    private final SparseArray<ArrayList<View>> mVirtualScrap = new SparseArray<ArrayList<View>>(2);
+    private final ArrayList<View> mVirtualAttached = new ArrayList<View>();
+    /**
+     * item position of the first attached child,attached children are continuous items in order.
+     */
+    private int mVirtualFirst = 0;
+    /**
+     * item count of provider,items of virtualized mode are provider items repeated {@link #getVirtualRepeatCount(int)} times.
+     */
+    private int mVirtualProviderCount = 0;
+    private int mVirtualPrefetch = 0;
+    private int mVirtualViewport = 0;
+    private int mVirtualCrossMax = 0;
+    private int mVirtualItemWidthSpec, mVirtualItemHeightSpec;
+    /**
+     * [mainStart-paddingStart,crossStart,crossEnd] of last layout.
+     */
+    private final int[] mVirtualLayoutBase = new int[3];
+    private final int[] mVirtualRange = new int[2];
+    private boolean mVirtualLayoutValid = false;
+    private boolean mVirtualDataChanged = false;
+    private boolean mVirtualFilling = false;
+    private boolean mVirtualObtainPrefetched = false;
+
+    OnFlingPredictionListener mFlingPredictionListener;
+    private final int[] mPredictRange = new int[2];
+    private boolean mLandingPrefetchEnable = false;
+    /**
+     * item views bound and measured at idle time for the predicted landing range,keyed by item position.
+     */
+    private final SparseArray<View> mLandingPrefetched = new SparseArray<View>(4);
+    private int mLandingNext = -1, mLandingLast = -1;
+    private MessageQueue.IdleHandler mLandingIdleHandler;
+    private boolean mLandingIdleScheduled = false;
+
+    public static final int LAYER_POLICY_NONE = 0;
+    public static final int LAYER_POLICY_HEAVY = 1;
+    public static final int LAYER_POLICY_ALL = 2;
+    private int mLayerPolicy = LAYER_POLICY_NONE;
+    private int mMaxScrollLayers = 6;
+    /**
+     * item views promoted to hardware layer by scroll,they had no layer before.
+     */
+    private final ArrayList<View> mLayerPromoted = new ArrayList<View>(6);
+    private int mLayerPromotedCount, mLayerDemotedCount;
+    private final int[] mLayerRange = new int[2];
+
+    /**
+     * anchor restored from saved state,applied after next layout.
+     */
+    private int mRestoreAnchorPosition = -1, mRestoreAnchorOffset = 0;
+
+    OnItemVisibilityListener mVisibilityListener;
+    private float mVisibilityThreshold = 0.5f;
+    /**
+     * bitset of visible items indexed by item position,set bits are all in [mVisibleBitsFirst,mVisibleBitsLast].
+     */
+    private long[] mVisibleBits = new long[1];
+    private int mVisibleBitsFirst = 0, mVisibleBitsLast = -1;
+    private int mVisibilityItemCount = 0;
+    private int[] mEnteredItems = new int[8], mExitedItems = new int[8];
+    private int mEnteredCount, mExitedCount;
+    private final int[] mVisibilityRange = new int[2];
+    private boolean mVisibilityScheduled = false;
+    private Runnable mVisibilityRunnable;
+
     public ScrollLayout(Context context) {
         super(context);
         init(context, null);
@@ -100,231 +214,1531 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
         setTouchScrollEnable(mTouchScrollEnable);
     }
 
-    @Override
-    public void setTouchScrollEnable(boolean touchScrollEnable) {
-        super.setTouchScrollEnable(touchScrollEnable);
-        if (isOrientationHorizontal()) {
-            setTouchScrollHorizontalEnable(touchScrollEnable);
+    @Override
+    public void setTouchScrollEnable(boolean touchScrollEnable) {
+        super.setTouchScrollEnable(touchScrollEnable);
+        if (isOrientationHorizontal()) {
+            setTouchScrollHorizontalEnable(touchScrollEnable);
+        }
+        if (isOrientationVertical()) {
+            setTouchScrollVerticalEnable(touchScrollEnable);
+        }
+    }
+
+    public boolean isEdgeEffectEnable() {
+        return mEdgeEffectEnable;
+    }
+
+    public void setEdgeEffectEnable(boolean enable) {
+        if (mEdgeEffectEnable != enable) {
+            mEdgeEffectEnable = enable;
+            if (!enable) {
+                invalidateGlows();
+            }
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onOrientationChanged(int orientation, int oldOrientation) {
+        setTouchScrollEnable(isTouchScrollEnable(false));
+        scrollTo(0, 0);
+    }
+
+    @Override
+    public void setClipToPadding(boolean clipToPadding) {
+        if (clipToPadding != getClipToPadding()) {
+            invalidateGlows();
+        }
+        super.setClipToPadding(clipToPadding);
+    }
+
+    protected void setScrollState(int newState) {
+        if (mScrollState != newState) {
+            int preState = mScrollState;
+            mScrollState = newState;
+            if (!trace(LayoutTrace.EVENT_SCROLL_STATE, LayoutTrace.PHASE_TOUCH, newState, preState, 0, 0) && isDevLogAccess()) {
+                printDev("state", String.format("from %d to %d", preState, newState));
+            }
+            if (newState == SCROLL_STATE_IDLE) {
+                cancelLandingPrefetch(true);
+            }
+            if (mLayerPolicy != LAYER_POLICY_NONE || !mLayerPromoted.isEmpty()) {
+                updateScrollLayers(newState != SCROLL_STATE_IDLE);
+            }
+            onScrollStateChanged(newState, preState);
+            if (mScrollListener != null) {
+                mScrollListener.onScrollStateChanged(mScrollState, preState);
+            }
+        }
+    }
+
+    public int getScrollState() {
+        return mScrollState;
+    }
+
+    public boolean isOrientationHorizontal() {
+        return orientationMatch(HORIZONTAL, false);
+    }
+
+    public boolean isOrientationVertical() {
+        return orientationMatch(VERTICAL, true);
+    }
+
+    public boolean orientationMatch(int orientation, boolean defaultIfUnset) {
+        int value = getOrientation();
+        if (value == 0) {
+            return defaultIfUnset;
+        }
+        return verifyFlag(value, orientation);
+    }
+
+    public void setOnScrollChangeListener(OnScrollChangeListener l) {
+        mScrollListener = l;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        cancelLandingPrefetch(true);
+        updateScrollLayers(false);
+        cancelResampledTouch();
+        if (mVisibilityScheduled) {
+            mVisibilityScheduled = false;
+            removeCallbacks(mVisibilityRunnable);
+        }
+        if (mVisibilityListener != null) {
+            dispatchItemVisibility(true);
+        }
+        invalidateGlows();
+        mScrollInfo.setEmpty();
+        mScrollingChildHelper = null;
+    }
+
+    @Override
+    public void removeAllViewsInLayout() {
+        updateScrollLayers(false);
+        super.removeAllViewsInLayout();
+        invalidateGlows();
+        mScrollInfo.setEmpty();
+        mScrollingChildHelper = null;
+        mVirtualLayoutValid = false;
+    }
+
+    //start:measure&layout&draw
+    @Override
+    protected void dispatchMeasure(int widthMeasureSpecContent, int heightMeasureSpecContent) {
+        final boolean horizontal = isOrientationHorizontal();
+        if (horizontal) {
+            widthMeasureSpecContent = MeasureSpec.makeMeasureSpec(MeasureSpec.getSize(widthMeasureSpecContent), MeasureSpec.UNSPECIFIED);
+        } else {
+            heightMeasureSpecContent = MeasureSpec.makeMeasureSpec(MeasureSpec.getSize(heightMeasureSpecContent), MeasureSpec.UNSPECIFIED);
+        }
+        if (mViewProvider != null) {
+            int viewport = MeasureSpec.getSize(horizontal ? widthMeasureSpecContent : heightMeasureSpecContent);
+            measureVirtualItems(widthMeasureSpecContent, heightMeasureSpecContent, viewport, horizontal, mItemMeasureResult);
+        } else if (!dispatchMeasureIncremental(widthMeasureSpecContent, heightMeasureSpecContent, horizontal, mItemMeasureResult)) {
+            measureItems(widthMeasureSpecContent, heightMeasureSpecContent, horizontal, mItemMeasureResult);
+        }
+        setContentSize(mItemMeasureResult[0], mItemMeasureResult[1], mItemMeasureResult[2]);
+    }
+
+    /**
+     * measure all item views and record their extents for incremental relayout.
+     *
+     * @param out [contentWidth,contentHeight,childState]
+     */
+    private void measureItems(int itemWidthMeasureSpec, int itemHeightMeasureSpec, boolean horizontal, int[] out) {
+        final int childCount = getChildCount();
+        final int itemMargin = horizontal ? mBorderDivider.getContentMarginHorizontal() : mBorderDivider.getContentMarginVertical();
+        int contentMain = 0, contentCross = 0, childState = 0, itemPosition = 0;
+        beginItemRecord(getItemViewCount());
+        for (int i = 0; i < childCount; i++) {
+            final View child = getChildAt(i);
+            if (skipVirtualChild(child, true)) continue;
+            if (itemPosition != 0) contentMain += itemMargin;
+            ScrollLayout.LayoutParams params = (ScrollLayout.LayoutParams) child.getLayoutParams();
+            measureItem(child, params, itemPosition++, itemWidthMeasureSpec, itemHeightMeasureSpec, horizontal);
+            int itemMain = horizontal ? params.width(child) : params.height(child);
+            int itemCross = horizontal ? params.height(child) : params.width(child);
+            contentMain += itemMain;
+            if (contentCross < itemCross) {
+                contentCross = itemCross;
+            }
+            childState |= child.getMeasuredState();
+        }
+        endItemRecord(itemPosition, itemWidthMeasureSpec, itemHeightMeasureSpec, childState);
+        out[0] = horizontal ? contentMain : contentCross;
+        out[1] = horizontal ? contentCross : contentMain;
+        out[2] = childState;
+    }
+
+    /**
+     * measure a item view,it's called both for full measure and incremental measure.
+     */
+    protected void measureItem(View child, LayoutParams params, int itemPosition, int itemWidthMeasureSpec, int itemHeightMeasureSpec, boolean horizontal) {
+        params.measure(this, child, itemPosition, itemWidthMeasureSpec, itemHeightMeasureSpec, 0, 0);
+    }
+
+    @Override
+    protected void dispatchLayout(int contentLeft, int contentTop) {
+        if (isOrientationHorizontal()) {
+            final int baseTop = contentTop, baseBottom = contentTop + getContentPureHeight();
+            if (mViewProvider != null) {
+                layoutVirtualItems(contentLeft, baseTop, baseBottom, true);
+            } else if (!dispatchLayoutIncremental(contentLeft, baseTop, baseBottom, true)) {
+                layoutItems(contentLeft, baseTop, baseBottom, true);
+            }
+        } else {
+            final int baseLeft = contentLeft, baseRight = contentLeft + getContentPureWidth();
+            if (mViewProvider != null) {
+                layoutVirtualItems(contentTop, baseLeft, baseRight, false);
+            } else if (!dispatchLayoutIncremental(contentTop, baseLeft, baseRight, false)) {
+                layoutItems(contentTop, baseLeft, baseRight, false);
+            }
+        }
+    }
+
+    /**
+     * layout all item views one by one along the orientation and record their start offset for incremental relayout.
+     *
+     * @param mainStart start offset along the orientation.
+     * @param crossStart start offset across the orientation.
+     * @param crossEnd end offset across the orientation.
+     */
+    protected void layoutItems(int mainStart, int crossStart, int crossEnd, boolean horizontal) {
+        final int count = getChildCount();
+        final int itemMargin = horizontal ? mBorderDivider.getContentMarginHorizontal() : mBorderDivider.getContentMarginVertical();
+        int itemPosition = 0, slotStart = mainStart;
+        for (int i = 0; i < count; i++) {
+            final View child = getChildAt(i);
+            if (skipVirtualChild(child, true)) continue;
+            recordItemLayout(itemPosition++, slotStart);
+            slotStart = layoutItem(child, (ScrollLayout.LayoutParams) child.getLayoutParams(), slotStart, crossStart, crossEnd, itemMargin, horizontal);
+        }
+        endItemLayoutRecord(itemPosition, slotStart, mainStart, crossStart, crossEnd);
+    }
+
+    /**
+     * layout a item view at slotStart along the orientation.
+     *
+     * @return slot start of next item view
+     */
+    protected int layoutItem(View child, LayoutParams params, int slotStart, int crossStart, int crossEnd, int itemMargin, boolean horizontal) {
+        int childLeft, childTop, childRight, childBottom;
+        if (horizontal) {
+            childTop = getContentStartH(crossStart, crossEnd, child.getMeasuredHeight(), params.topMargin(), params.bottomMargin(), params.gravity);
+            childBottom = childTop + child.getMeasuredHeight();
+            childLeft = slotStart + params.leftMargin();
+            childRight = childLeft + child.getMeasuredWidth();
+            child.layout(childLeft, childTop, childRight, childBottom);
+            return childRight + params.rightMargin() + itemMargin;
+        } else {
+            childTop = slotStart + params.topMargin();
+            childBottom = childTop + child.getMeasuredHeight();
+            childLeft = getContentStartH(crossStart, crossEnd, child.getMeasuredWidth(), params.leftMargin(), params.rightMargin(), params.gravity);
+            childRight = childLeft + child.getMeasuredWidth();
+            child.layout(childLeft, childTop, childRight, childBottom);
+            return childBottom + params.bottomMargin() + itemMargin;
+        }
+    }
+
+    protected void doAfterLayout(boolean firstAttachLayout) {
+        if (mRestoreAnchorPosition >= 0) {
+            restoreAnchor();
+        }
+        if (mVisibilityListener != null) {
+            scheduleVisibilityUpdate();
+        }
+        if (0x80000000 == (0x80000000 & mScrollInfo.left)) {
+            scrollToItem(mScrollInfo, true);
+        }
+    }
+
+    @Override
+    protected void doAfterDraw(Canvas c, Rect inset) {
+        if (mEdgeEffectEnable) {
+            // TODO If padding is not 0 and clipChildrenToPadding is false, to draw glows properly, we
+            // need find children closest to edges. Not sure if it is worth the effort.
+            boolean clipToPadding = getClipToPadding();
+            boolean needsInvalidate = false;
+            if (mLeftGlow != null && !mLeftGlow.isFinished()) {
+                final int restore = c.save();
+                final int padding = clipToPadding ? getPaddingBottom() : 0;
+                c.rotate(270);
+                c.translate(-getHeight() + padding, 0);
+                needsInvalidate = mLeftGlow != null && mLeftGlow.draw(c);
+                c.restoreToCount(restore);
+            }
+            if (mTopGlow != null && !mTopGlow.isFinished()) {
+                final int restore = c.save();
+                if (clipToPadding) {
+                    c.translate(getPaddingLeft(), getPaddingTop());
+                }
+                needsInvalidate |= mTopGlow != null && mTopGlow.draw(c);
+                c.restoreToCount(restore);
+            }
+            if (mRightGlow != null && !mRightGlow.isFinished()) {
+                final int restore = c.save();
+                final int width = getWidth();
+                final int padding = clipToPadding ? getPaddingTop() : 0;
+                c.rotate(90);
+                c.translate(-padding, -width - getScrollX());
+                needsInvalidate |= mRightGlow != null && mRightGlow.draw(c);
+                c.restoreToCount(restore);
+            }
+            if (mBottomGlow != null && !mBottomGlow.isFinished()) {
+                final int restore = c.save();
+                c.rotate(180);
+                if (clipToPadding) {
+                    c.translate(-getWidth() + getPaddingRight(), -getHeight() + getPaddingBottom() - getScrollY());
+                } else {
+                    c.translate(-getWidth(), -getHeight());
+                }
+                needsInvalidate |= mBottomGlow != null && mBottomGlow.draw(c);
+                c.restoreToCount(restore);
+            }
+            if (needsInvalidate) {
+                ViewCompat.postInvalidateOnAnimation(this);
+            }
+        }
+    }
+    //end:measure&layout&draw
+
+    //start:incremental relayout
+
+    /**
+     * when only a few item views requested layout,measure and layout them only and shift the later item views.
+     * it's enabled by default.
+     */
+    public void setIncrementalLayoutEnable(boolean incrementalLayoutEnable) {
+        if (mIncrementalLayoutEnable != incrementalLayoutEnable) {
+            mIncrementalLayoutEnable = incrementalLayoutEnable;
+            mItemRecordCount = -1;
+        }
+    }
+
+    public boolean isIncrementalLayoutEnable() {
+        return mIncrementalLayoutEnable;
+    }
+
+    /**
+     * subclass can return false when its item views depend on each other or on things not recorded.
+     */
+    protected boolean isIncrementalLayoutSupported() {
+        return mIncrementalLayoutEnable && mViewProvider == null;
+    }
+
+    private static int[] ensureCapacity(int[] array, int size) {
+        if (array == null || array.length < size) {
+            int[] result = new int[Math.max(16, size + (size >> 1))];
+            if (array != null) {
+                System.arraycopy(array, 0, result, 0, array.length);
+            }
+            return result;
+        }
+        return array;
+    }
+
+    protected final void beginItemRecord(int itemCount) {
+        mItemRecordCount = -1;
+        mItemStart = ensureCapacity(mItemStart, itemCount + 1);
+        getItemStore().ensureCapacity(itemCount);
+    }
+
+    protected final void endItemRecord(int itemCount, int itemWidthMeasureSpec, int itemHeightMeasureSpec, int childState) {
+        if (itemCount < mItemStart.length) {
+            mItemRecordCount = itemCount;
+            mItemRecordChildCount = getChildCount();
+            mItemRecordWidthSpec = itemWidthMeasureSpec;
+            mItemRecordHeightSpec = itemHeightMeasureSpec;
+            mItemRecordState = childState;
+            mItemLayoutRecorded = false;
+        }
+    }
+
+    protected final void recordItemLayout(int itemPosition, int slotStart) {
+        if (itemPosition < mItemRecordCount) {
+            mItemStart[itemPosition] = slotStart;
+        }
+    }
+
+    protected final void endItemLayoutRecord(int itemCount, int slotEnd, int mainStart, int crossStart, int crossEnd) {
+        if (itemCount == mItemRecordCount) {
+            mItemStart[itemCount] = slotEnd;
+            mItemLayoutBase[0] = mainStart;
+            mItemLayoutBase[1] = crossStart;
+            mItemLayoutBase[2] = crossEnd;
+            mItemLayoutRecorded = true;
+        }
+        mIncrementalMeasured = false;
+    }
+
+    /**
+     * re-measure item views which requested layout only,and patch content size with the recorded extent of others.
+     *
+     * @param out [contentWidth,contentHeight,childState] of all item views.
+     * @return false if it's not available,then all item views should be measured.
+     */
+    protected final boolean dispatchMeasureIncremental(int itemWidthMeasureSpec, int itemHeightMeasureSpec, boolean horizontal, int[] out) {
+        mIncrementalMeasured = false;
+        if (!isIncrementalLayoutSupported() || isSelfLayoutRequested() || !isAttachLayoutFinished() || !mItemLayoutRecorded
+                || mItemRecordCount <= 0 || mItemRecordChildCount != getChildCount()
+                || mItemRecordWidthSpec != itemWidthMeasureSpec || mItemRecordHeightSpec != itemHeightMeasureSpec
+                || mItemRecordCount != getItemViewCount()) {
+            return false;
+        }
+        final int itemCount = mItemRecordCount;
+        final int itemMargin = horizontal ? mBorderDivider.getContentMarginHorizontal() : mBorderDivider.getContentMarginVertical();
+        final ItemStore store = getItemStore();
+        int contentMain = 0, contentCross = 0, childState = mItemRecordState;
+        for (int itemPosition = 0; itemPosition < itemCount; itemPosition++) {
+            final View child = getItemView(itemPosition);
+            if (child.isLayoutRequested()) {
+                ScrollLayout.LayoutParams params = (ScrollLayout.LayoutParams) child.getLayoutParams();
+                measureItem(child, params, itemPosition, itemWidthMeasureSpec, itemHeightMeasureSpec, horizontal);
+                childState |= child.getMeasuredState();
+            }
+            int itemCross = store.getExtent(itemPosition, !horizontal);
+            contentMain += store.getExtent(itemPosition, horizontal);
+            if (contentCross < itemCross) {
+                contentCross = itemCross;
+            }
+        }
+        contentMain += itemMargin * (itemCount - 1);
+        mItemRecordState = childState;
+        mIncrementalMeasured = true;
+        out[0] = horizontal ? contentMain : contentCross;
+        out[1] = horizontal ? contentCross : contentMain;
+        out[2] = childState;
+        return true;
+    }
+
+    /**
+     * layout item views which requested layout only and shift the later item views by the size changed.
+     * only available after {@link #dispatchMeasureIncremental(int, int, boolean, int[])} succeed and layout base not changed.
+     *
+     * @return false if it's not available,then all item views should be laid out.
+     */
+    protected final boolean dispatchLayoutIncremental(int mainStart, int crossStart, int crossEnd, boolean horizontal) {
+        boolean available = mIncrementalMeasured && mItemLayoutRecorded
+                && mItemLayoutBase[0] == mainStart && mItemLayoutBase[1] == crossStart && mItemLayoutBase[2] == crossEnd
+                && mItemRecordCount == getItemViewCount();
+        mIncrementalMeasured = false;
+        if (!available) {
+            return false;
+        }
+        final int itemCount = mItemRecordCount;
+        final int itemMargin = horizontal ? mBorderDivider.getContentMarginHorizontal() : mBorderDivider.getContentMarginVertical();
+        int shift = 0;
+        for (int itemPosition = 0; itemPosition < itemCount; itemPosition++) {
+            final View child = getItemView(itemPosition);
+            final int slotStart = mItemStart[itemPosition] + shift;
+            if (child.isLayoutRequested()) {
+                int nextStart = layoutItem(child, (ScrollLayout.LayoutParams) child.getLayoutParams(), slotStart, crossStart, crossEnd, itemMargin, horizontal);
+                shift = nextStart - mItemStart[itemPosition + 1];
+            } else if (shift != 0) {
+                if (horizontal) {
+                    child.offsetLeftAndRight(shift);
+                } else {
+                    child.offsetTopAndBottom(shift);
+                }
+            }
+            mItemStart[itemPosition] = slotStart;
+        }
+        mItemStart[itemCount] += shift;
+        return true;
+    }
+    //end:incremental relayout
+
+    //start:virtualized items
+
+    /**
+     * virtualized mode,only items intersecting the visible content bounds plus prefetch margin are attached as children.
+     * detached item views are recycled by {@link ItemProvider.ViewProvider#getViewType(int)}
+     * and given back as convertView,scroll range is estimated from the measured items.
+     * all children added before are removed when provider changed.
+     *
+     * @param provider null to quit virtualized mode.
+     */
+    public void setViewProvider(ItemProvider.ViewProvider provider) {
+        if (mViewProvider != provider) {
+            cancelLandingPrefetch(false);
+            removeAllViewsInLayout();
+            mVirtualScrap.clear();
+            mViewProvider = provider;
+            mVirtualFirst = 0;
+            mVirtualDataChanged = true;
+            requestLayout();
+        }
+    }
+
+    public ItemProvider.ViewProvider getViewProvider() {
+        return mViewProvider;
+    }
+
+    /**
+     * rebind all attached item views and forget measured extents after data of {@link #getViewProvider()} changed.
+     */
+    public void notifyDataSetChanged() {
+        if (mViewProvider != null) {
+            mVirtualDataChanged = true;
+            requestLayout();
+        }
+    }
+
+    /**
+     * extra pixels before and after the visible content bounds to attach items ahead of scrolling.
+     */
+    public void setPrefetchMargin(int prefetchMargin) {
+        if (mVirtualPrefetch != prefetchMargin) {
+            mVirtualPrefetch = Math.max(0, prefetchMargin);
+            if (mViewProvider != null) {
+                requestLayout();
+            }
+        }
+    }
+
+    public int getPrefetchMargin() {
+        return mVirtualPrefetch;
+    }
+
+    /**
+     * item position of the first attached child in virtualized mode,-1 if nothing attached.
+     */
+    public int getFirstAttachedPosition() {
+        return mViewProvider == null || getChildCount() == 0 ? -1 : mVirtualFirst;
+    }
+
+    /**
+     * measure attached items of virtualized mode.
+     *
+     * @param viewport main axis size of visible content bounds.
+     * @param out      [contentWidth,contentHeight,childState]
+     */
+    protected void measureVirtualItems(int itemWidthMeasureSpec, int itemHeightMeasureSpec, int viewport, boolean horizontal, int[] out) {
+        final int providerCount = mViewProvider.getCount();
+        final int itemCount = providerCount * Math.max(1, getVirtualRepeatCount(providerCount));
+        mVirtualProviderCount = providerCount;
+        final int itemMargin = horizontal ? mBorderDivider.getContentMarginHorizontal() : mBorderDivider.getContentMarginVertical();
+        boolean crossSpecChanged = horizontal ? (mVirtualItemHeightSpec != itemHeightMeasureSpec) : (mVirtualItemWidthSpec != itemWidthMeasureSpec);
+        mVirtualItemWidthSpec = itemWidthMeasureSpec;
+        mVirtualItemHeightSpec = itemHeightMeasureSpec;
+        mVirtualViewport = viewport;
+        if (mVirtualDataChanged || crossSpecChanged || itemCount != mVirtualIndex.getCount() || itemMargin != mVirtualIndex.getGap()) {
+            cancelLandingPrefetch(true);
+            if (mVirtualDataChanged || itemCount != mVirtualIndex.getCount()) {
+                recycleVirtualItems();
+                getItemStore().invalidateInsets();
+            }
+            mVirtualDataChanged = false;
+            mVirtualIndex.reset(itemCount, itemMargin);
+            mVirtualCrossMax = 0;
+            mVirtualFirst = Math.max(0, Math.min(mVirtualFirst, itemCount - 1));
+            fillVirtualItems(horizontal ? getScrollX() : getScrollY(), horizontal, true);
+        } else {
+            fillVirtualItems(horizontal ? getScrollX() : getScrollY(), horizontal, isSelfLayoutRequested());
+        }
+        int childState = 0;
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            childState |= getChildAt(i).getMeasuredState();
+        }
+        out[0] = horizontal ? mVirtualIndex.getTotal() : mVirtualCrossMax;
+        out[1] = horizontal ? mVirtualCrossMax : mVirtualIndex.getTotal();
+        out[2] = childState;
+    }
+
+    protected void layoutVirtualItems(int mainStart, int crossStart, int crossEnd, boolean horizontal) {
+        int base = mainStart - (horizontal ? getPaddingLeft() : getPaddingTop());
+        boolean baseChanged = !mVirtualLayoutValid || base != mVirtualLayoutBase[0];
+        mVirtualLayoutBase[0] = base;
+        mVirtualLayoutBase[1] = crossStart;
+        mVirtualLayoutBase[2] = crossEnd;
+        mVirtualLayoutValid = true;
+        if (baseChanged) {
+            fillVirtualItems(horizontal ? getScrollX() : getScrollY(), horizontal, false);
+        }
+        positionVirtualItems(horizontal);
+    }
+
+    private void positionVirtualItems(boolean horizontal) {
+        final int childCount = getChildCount(), mainStart = mVirtualLayoutBase[0] + (horizontal ? getPaddingLeft() : getPaddingTop());
+        final int itemMargin = mVirtualIndex.getGap();
+        for (int i = 0; i < childCount; i++) {
+            final View child = getChildAt(i);
+            int slotStart = mainStart + mVirtualIndex.getStart(mVirtualFirst + i);
+            layoutItem(child, (ScrollLayout.LayoutParams) child.getLayoutParams(), slotStart, mVirtualLayoutBase[1], mVirtualLayoutBase[2], itemMargin, horizontal);
+        }
+    }
+
+    /**
+     * attach the items intersecting visible content bounds plus prefetch margin and recycle others.
+     * scroll is adjusted silently when extents of measured items differ from their estimate,
+     * so the item at visible start keeps still.
+     *
+     * @param remeasure measure all attached items,or only new ones and those requested layout.
+     * @return true if attached items changed.
+     */
+    private boolean fillVirtualItems(int scrolled, boolean horizontal, boolean remeasure) {
+        final int itemCount = mVirtualIndex.getCount();
+        if (itemCount == 0) {
+            boolean changed = getChildCount() > 0;
+            recycleVirtualItems();
+            return changed;
+        }
+        mVirtualFilling = true;
+        final int visibleStart = Math.max(0, scrolled - mVirtualLayoutBase[0]);
+        final int windowStart = Math.max(0, visibleStart - mVirtualPrefetch);
+        final int windowEnd = visibleStart + mVirtualViewport + mVirtualPrefetch;
+        final int anchor = mVirtualIndex.positionAt(visibleStart);
+        final int anchorStart = mVirtualIndex.getStart(anchor);
+        final int[] range = mVirtualRange;
+        range[0] = range[1] = mVirtualIndex.positionAt(windowStart);
+        adjustVirtualAttachRange(itemCount, range);
+        final int first = Math.max(0, range[0]), last = Math.min(itemCount - 1, range[1]);
+        final int oldFirst = mVirtualFirst, oldCount = getChildCount();
+        final ArrayList<View> attached = mVirtualAttached;
+        for (int i = 0; i < oldCount; i++) {
+            attached.add(getChildAt(i));
+        }
+        detachAllViewsFromParent();
+        boolean changed = first != oldFirst;
+        final int needSize = windowEnd - mVirtualIndex.getStart(first);
+        int filled = 0, itemPosition = first, index = 0;
+        while (itemPosition < itemCount && (itemPosition <= last || filled < needSize)) {
+            int oldIndex = itemPosition - oldFirst;
+            View child = oldIndex >= 0 && oldIndex < oldCount ? attached.set(oldIndex, null) : null;
+            boolean bind = child == null, prefetched = false;
+            if (bind) {
+                child = obtainVirtualView(itemPosition);
+                prefetched = mVirtualObtainPrefetched;
+                changed = true;
+                addViewInLayout(child, index, child.getLayoutParams(), true);
+            } else {
+                attachViewToParent(child, index, child.getLayoutParams());
+            }
+            boolean measure = remeasure || (!prefetched && (bind || child.isLayoutRequested() || !mVirtualIndex.isKnown(itemPosition)));
+            if (measure || prefetched) {
+                ScrollLayout.LayoutParams params = (ScrollLayout.LayoutParams) child.getLayoutParams();
+                if (measure) {
+                    measureItem(child, params, itemPosition, mVirtualItemWidthSpec, mVirtualItemHeightSpec, horizontal);
+                }
+                int itemCross = horizontal ? params.height(child) : params.width(child);
+                mVirtualIndex.setExtent(itemPosition, horizontal ? params.width(child) : params.height(child));
+                if (mVirtualCrossMax < itemCross) {
+                    mVirtualCrossMax = itemCross;
+                }
+            }
+            filled += mVirtualIndex.getExtent(itemPosition) + mVirtualIndex.getGap();
+            itemPosition++;
+            index++;
+        }
+        for (int i = 0; i < oldCount; i++) {
+            View child = attached.get(i);
+            if (child != null) {
+                removeDetachedView(child, false);
+                recycleVirtualView(child);
+                changed = true;
+            }
+        }
+        attached.clear();
+        mVirtualFirst = first;
+        invalidateVirtualIndexTable();
+        int shift = mVirtualIndex.getStart(anchor) - anchorStart;
+        if (shift != 0 && scrolled > 0) {
+            if (horizontal) {
+                scrollTo(getScrollX() + shift, getScrollY());
+            } else {
+                scrollTo(getScrollX(), getScrollY() + shift);
+            }
+        }
+        mVirtualFilling = false;
+        return changed;
+    }
+
+    /**
+     * widen the item range to attach in virtualized mode,items out of the range are still attached
+     * when they intersect visible content bounds plus prefetch margin.
+     *
+     * @param range [first,last] item position,both inclusive.
+     */
+    protected void adjustVirtualAttachRange(int itemCount, int[] range) {
+    }
+
+    /**
+     * times provider items are repeated in virtualized mode,item position p shows provider item p%providerCount.
+     * subclass repeats items to scroll them circularly,1 by default.
+     */
+    protected int getVirtualRepeatCount(int providerCount) {
+        return 1;
+    }
+
+    /**
+     * provider item count last measured,item count of virtualized mode divided by {@link #getVirtualRepeatCount(int)}.
+     */
+    protected int getVirtualProviderCount() {
+        return mVirtualProviderCount;
+    }
+
+    /**
+     * item position reported by {@link OnItemVisibilityListener} and {@link OnFlingPredictionListener},
+     * subclass maps its own item positions such as repeated items to the positions its user knows.
+     */
+    protected int toReportedPosition(int itemPosition) {
+        return itemPosition;
+    }
+
+    /**
+     * scroll offset to show an item of virtualized mode at start or centre of visible content bounds,
+     * offsets of items never measured are estimated.
+     */
+    protected int computeVirtualScrollOffset(int itemPosition, boolean centreWithParent) {
+        int scrolled = mVirtualLayoutBase[0] + mVirtualIndex.getStart(itemPosition);
+        if (centreWithParent) {
+            scrolled -= (mVirtualViewport - mVirtualIndex.getExtent(itemPosition)) / 2;
+        }
+        return scrolled;
+    }
+
+    /**
+     * item of virtualized mode at start or centre of visible content bounds when scrolled to the offset,
+     * the inverse of {@link #computeVirtualScrollOffset(int, boolean)},-1 if there is no item.
+     */
+    protected int getVirtualItemPositionAt(int scrolled, boolean centreWithParent) {
+        int offset = scrolled - mVirtualLayoutBase[0];
+        if (centreWithParent) {
+            offset += mVirtualViewport / 2;
+        }
+        return mVirtualIndex.positionAt(Math.max(0, offset));
+    }
+
+    /**
+     * main axis extent with margin and decoration insets of an item in virtualized mode,estimated if never measured.
+     */
+    protected int getVirtualItemExtent(int itemPosition) {
+        return mVirtualIndex.getExtent(itemPosition);
+    }
+
+    /**
+     * item count of {@link #getViewProvider()} last measured.
+     */
+    protected int getVirtualItemCount() {
+        return mVirtualIndex.getCount();
+    }
+
+    /**
+     * attached children change while filling or scrolling in virtualized mode,insets are cached for all item positions.
+     */
+    @Override
+    protected int getItemCountForDecoration() {
+        return mViewProvider != null ? mVirtualIndex.getCount() : super.getItemCountForDecoration();
+    }
+
+    private View obtainVirtualView(int itemPosition) {
+        View prefetched = mLandingPrefetched.get(itemPosition);
+        mVirtualObtainPrefetched = prefetched != null;
+        if (prefetched != null) {
+            mLandingPrefetched.remove(itemPosition);
+            return prefetched;
+        }
+        final int providerPosition = mVirtualProviderCount > 0 ? itemPosition % mVirtualProviderCount : itemPosition;
+        final int viewType = mViewProvider.getViewType(providerPosition);
+        ArrayList<View> scrap = mVirtualScrap.get(viewType);
+        View convertView = scrap == null || scrap.isEmpty() ? null : scrap.remove(scrap.size() - 1);
+        View view = mViewProvider.getView(providerPosition, convertView, this);
+        view.setTag(TAG_VIEW_TYPE, viewType);
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params == null) {
+            view.setLayoutParams(generateDefaultLayoutParams());
+        } else if (!checkLayoutParams(params)) {
+            view.setLayoutParams(generateLayoutParams(params));
+        }
+        return view;
+    }
+
+    private void recycleVirtualView(View child) {
+        Object tag = child.getTag(TAG_VIEW_TYPE);
+        int viewType = tag instanceof Integer ? (Integer) tag : 0;
+        ArrayList<View> scrap = mVirtualScrap.get(viewType);
+        if (scrap == null) {
+            scrap = new ArrayList<View>(MAX_SCRAP_EACH_TYPE);
+            mVirtualScrap.put(viewType, scrap);
+        }
+        if (scrap.size() < MAX_SCRAP_EACH_TYPE) {
+            scrap.add(child);
+        }
+    }
+
+    private void recycleVirtualItems() {
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            recycleVirtualView(getChildAt(i));
+        }
+        removeAllViewsInLayout();
+    }
+
+    /**
+     * attach and detach items while scrolling,content size is patched when estimated extents changed.
+     */
+    private void updateVirtualItems(int scrollX, int scrollY) {
+        final boolean horizontal = isOrientationHorizontal();
+        final int scrolled = horizontal ? scrollX : scrollY;
+        final int childCount = getChildCount(), itemCount = mVirtualIndex.getCount();
+        final int visibleStart = Math.max(0, scrolled - mVirtualLayoutBase[0]), visibleEnd = visibleStart + mVirtualViewport;
+        if (childCount > 0) {
+            final int attachedLast = mVirtualFirst + childCount - 1;
+            final int[] range = mVirtualRange;
+            range[0] = mVirtualIndex.positionAt(visibleStart);
+            range[1] = mVirtualIndex.positionAt(Math.max(visibleStart, visibleEnd - 1));
+            adjustVirtualAttachRange(itemCount, range);
+            int attachedStart = mVirtualIndex.getStart(mVirtualFirst);
+            int attachedEnd = mVirtualIndex.getEnd(attachedLast);
+            boolean covered = mVirtualFirst <= Math.max(0, range[0]) && attachedLast >= Math.min(itemCount - 1, range[1]);
+            boolean tooMuch = (mVirtualFirst < range[0] && attachedStart < visibleStart - 2 * mVirtualPrefetch - mVirtualViewport)
+                    || (attachedLast > range[1] && attachedEnd > visibleEnd + 2 * mVirtualPrefetch + mVirtualViewport);
+            if (covered && !tooMuch) {
+                return;
+            }
+        }
+        int oldTotal = mVirtualIndex.getTotal(), oldCross = mVirtualCrossMax;
+        if (fillVirtualItems(scrolled, horizontal, false)) {
+            int totalDelta = mVirtualIndex.getTotal() - oldTotal, crossDelta = mVirtualCrossMax - oldCross;
+            if (totalDelta != 0 || crossDelta != 0) {
+                if (horizontal) {
+                    setContentSize(getContentWidth() + totalDelta, getContentHeight() + crossDelta, 0);
+                } else {
+                    setContentSize(getContentWidth() + crossDelta, getContentHeight() + totalDelta, 0);
+                }
+            }
+            positionVirtualItems(horizontal);
+            invalidate();
+        }
+    }
+
+    //end:virtualized items
+
+    @Override
+    protected void onScrollChanged(int scrollX, int scrollY, Rect visibleBounds, boolean fromScrollChanged) {
+        super.onScrollChanged(scrollX, scrollY, visibleBounds, fromScrollChanged);
+        if (mViewProvider != null && fromScrollChanged && mVirtualLayoutValid && !mVirtualFilling) {
+            updateVirtualItems(scrollX, scrollY);
+        }
+        if (mLayerPolicy != LAYER_POLICY_NONE && mScrollState != SCROLL_STATE_IDLE) {
+            updateScrollLayers(true);
+        }
+        if (mVisibilityListener != null) {
+            scheduleVisibilityUpdate();
+        }
+    }
+
+    //start:fling prediction
+
+    public void setOnFlingPredictionListener(OnFlingPredictionListener l) {
+        mFlingPredictionListener = l;
+    }
+
+    public OnFlingPredictionListener getFlingPredictionListener() {
+        return mFlingPredictionListener;
+    }
+
+    /**
+     * bind and measure items visible at the predicted landing position of a fling at idle time of main thread,
+     * so they are ready when the fling lands.only available in virtualized mode,it's disabled by default.
+     */
+    public void setLandingPrefetchEnable(boolean landingPrefetchEnable) {
+        if (mLandingPrefetchEnable != landingPrefetchEnable) {
+            mLandingPrefetchEnable = landingPrefetchEnable;
+            if (!landingPrefetchEnable) {
+                cancelLandingPrefetch(true);
+            }
+        }
+    }
+
+    public boolean isLandingPrefetchEnable() {
+        return mLandingPrefetchEnable;
+    }
+
+    /**
+     * item range visible when scrolled to (scrollX,scrollY),item positions are those of attached items in virtualized mode too,
+     * where item position p shows provider item p%providerCount,map them by {@link #toReportedPosition(int)} before reporting.
+     *
+     * @param outRange [firstPosition,lastPosition]
+     * @return false if it can't be predicted.
+     */
+    protected boolean computeVisibleRangeAt(int scrollX, int scrollY, int[] outRange) {
+        final boolean horizontal = isOrientationHorizontal();
+        final Rect visibleBounds = getVisibleContentBounds();
+        final int delta = horizontal ? (scrollX - getScrollX()) : (scrollY - getScrollY());
+        final int visibleStart = (horizontal ? visibleBounds.left : visibleBounds.top) + delta;
+        final int visibleEnd = Math.max(visibleStart + 1, (horizontal ? visibleBounds.right : visibleBounds.bottom) + delta);
+        if (mViewProvider != null) {
+            if (!mVirtualLayoutValid || mVirtualIndex.getCount() == 0) {
+                return false;
+            }
+            int mainStart = mVirtualLayoutBase[0] + (horizontal ? getPaddingLeft() : getPaddingTop());
+            outRange[0] = mVirtualIndex.positionAt(Math.max(0, visibleStart - mainStart));
+            outRange[1] = mVirtualIndex.positionAt(Math.max(0, visibleEnd - 1 - mainStart));
+            return true;
+        }
+        if (!mItemLayoutRecorded || mItemRecordCount <= 0) {
+            return false;
+        }
+        outRange[0] = recordedItemAt(visibleStart);
+        outRange[1] = recordedItemAt(visibleEnd - 1);
+        return true;
+    }
+
+    /**
+     * last recorded item whose slot start is not after the offset.
+     */
+    private int recordedItemAt(int offset) {
+        int low = 0, high = mItemRecordCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mItemStart[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * called when a fling or settle starts or is re-targeted with the position it will stop at.
+     */
+    private void onSettleTargetChanged(int finalScrollX, int finalScrollY) {
+        if (mFlingPredictionListener == null && !(mLandingPrefetchEnable && mViewProvider != null)) {
+            return;
+        }
+        finalScrollX = Math.max(0, Math.min(getHorizontalScrollRange(), finalScrollX));
+        finalScrollY = Math.max(0, Math.min(getVerticalScrollRange(), finalScrollY));
+        final int[] range = mPredictRange;
+        if (!computeVisibleRangeAt(finalScrollX, finalScrollY, range)) {
+            range[0] = range[1] = -1;
+        }
+        if (mFlingPredictionListener != null) {
+            mFlingPredictionListener.onFlingPredicted(finalScrollX, finalScrollY
+                    , range[0] < 0 ? -1 : toReportedPosition(range[0]), range[1] < 0 ? -1 : toReportedPosition(range[1]));
+        }
+        if (mLandingPrefetchEnable && mViewProvider != null && range[0] >= 0) {
+            scheduleLandingPrefetch(range[0], range[1]);
+        }
+    }
+
+    private void scheduleLandingPrefetch(int first, int last) {
+        for (int i = mLandingPrefetched.size() - 1; i >= 0; i--) {
+            int position = mLandingPrefetched.keyAt(i);
+            if (position < first || position > last) {
+                recycleVirtualView(mLandingPrefetched.valueAt(i));
+                mLandingPrefetched.removeAt(i);
+            }
+        }
+        mLandingNext = first;
+        mLandingLast = last;
+        if (!mLandingIdleScheduled) {
+            if (mLandingIdleHandler == null) {
+                mLandingIdleHandler = new MessageQueue.IdleHandler() {
+                    @Override
+                    public boolean queueIdle() {
+                        mLandingIdleScheduled = prefetchLandingItem();
+                        return mLandingIdleScheduled;
+                    }
+                };
+            }
+            mLandingIdleScheduled = true;
+            Looper.myQueue().addIdleHandler(mLandingIdleHandler);
+        }
+    }
+
+    /**
+     * bind and measure one item of landing range each idle time,its extent is committed when attached.
+     *
+     * @return true if there are more items to prefetch.
+     */
+    private boolean prefetchLandingItem() {
+        final int attachedFirst = mVirtualFirst, attachedLast = mVirtualFirst + getChildCount() - 1;
+        final int itemCount = mVirtualIndex.getCount();
+        while (mViewProvider != null && mLandingNext <= mLandingLast && mLandingNext < itemCount) {
+            int itemPosition = mLandingNext++;
+            if ((itemPosition >= attachedFirst && itemPosition <= attachedLast) || mLandingPrefetched.get(itemPosition) != null) {
+                continue;
+            }
+            View child = obtainVirtualView(itemPosition);
+            measureItem(child, (ScrollLayout.LayoutParams) child.getLayoutParams(), itemPosition
+                    , mVirtualItemWidthSpec, mVirtualItemHeightSpec, isOrientationHorizontal());
+            mLandingPrefetched.put(itemPosition, child);
+            return mLandingNext <= mLandingLast;
+        }
+        return false;
+    }
+
+    /**
+     * @param recycle give prefetched item views back to scrap,or just forget them.
+     */
+    private void cancelLandingPrefetch(boolean recycle) {
+        if (mLandingIdleScheduled) {
+            mLandingIdleScheduled = false;
+            Looper.myQueue().removeIdleHandler(mLandingIdleHandler);
+        }
+        mLandingNext = mLandingLast = -1;
+        if (recycle) {
+            for (int i = mLandingPrefetched.size() - 1; i >= 0; i--) {
+                recycleVirtualView(mLandingPrefetched.valueAt(i));
+            }
+        }
+        mLandingPrefetched.clear();
+    }
+    //end:fling prediction
+
+    //start:scroll layers
+
+    /**
+     * promote visible item views to hardware layers while dragging or settling and demote them when idle,
+     * so they are not re-recorded every frame.only item views without a layer of their own are promoted.
+     *
+     * @param policy    {@link #LAYER_POLICY_NONE} by default,{@link #LAYER_POLICY_HEAVY} promotes item views which are
+     *                  not empty view groups,{@link #LAYER_POLICY_ALL} promotes all item views.
+     * @param maxLayers max count of layers to bound GPU memory.
+     */
+    public void setScrollLayerPolicy(int policy, int maxLayers) {
+        mLayerPolicy = policy;
+        mMaxScrollLayers = Math.max(0, maxLayers);
+        if (mLayerPolicy != LAYER_POLICY_NONE || !mLayerPromoted.isEmpty()) {
+            updateScrollLayers(mScrollState != SCROLL_STATE_IDLE);
+        }
+    }
+
+    public int getScrollLayerPolicy() {
+        return mLayerPolicy;
+    }
+
+    public int getMaxScrollLayers() {
+        return mMaxScrollLayers;
+    }
+
+    /**
+     * layers promoted in last frame.
+     */
+    public int getLayerPromotedCount() {
+        return mLayerPromotedCount;
+    }
+
+    /**
+     * layers demoted in last frame.
+     */
+    public int getLayerDemotedCount() {
+        return mLayerDemotedCount;
+    }
+
+    public int getActiveLayerCount() {
+        return mLayerPromoted.size();
+    }
+
+    /**
+     * subclass can decide whether a visible item view is worth a hardware layer.
+     */
+    protected boolean shouldPromoteLayer(View child) {
+        return mLayerPolicy == LAYER_POLICY_ALL || (child instanceof ViewGroup && ((ViewGroup) child).getChildCount() > 0);
+    }
+
+    private static boolean isChildVisibleIn(View child, Rect visibleBounds) {
+        return child.getVisibility() == View.VISIBLE && child.getRight() > visibleBounds.left && child.getLeft() < visibleBounds.right
+                && child.getBottom() > visibleBounds.top && child.getTop() < visibleBounds.bottom;
+    }
+
+    /**
+     * demote layers of item views out of visible content bounds and promote visible ones up to the max count.
+     */
+    private void updateScrollLayers(boolean scrolling) {
+        final boolean enable = scrolling && mLayerPolicy != LAYER_POLICY_NONE && mMaxScrollLayers > 0 && isHardwareAccelerated();
+        final Rect visibleBounds = getVisibleContentBounds();
+        int promoted = 0, demoted = 0;
+        for (int i = mLayerPromoted.size() - 1; i >= 0; i--) {
+            View child = mLayerPromoted.get(i);
+            if (!enable || child.getParent() != this || !isChildVisibleIn(child, visibleBounds)) {
+                if (ViewCompat.getLayerType(child) == ViewCompat.LAYER_TYPE_HARDWARE) {
+                    ViewCompat.setLayerType(child, ViewCompat.LAYER_TYPE_NONE, null);
+                }
+                mLayerPromoted.remove(i);
+                demoted++;
+            }
+        }
+        if (enable && mLayerPromoted.size() < mMaxScrollLayers) {
+            final int[] range = mLayerRange;
+            final boolean ranged = computeVisibleRangeAt(getScrollX(), getScrollY(), range);
+            final int first = ranged ? range[0] : 0;
+            final int last = ranged ? range[1] : getChildCount() - 1;
+            for (int i = first; i <= last && mLayerPromoted.size() < mMaxScrollLayers; i++) {
+                View child;
+                if (!ranged) {
+                    child = getChildAt(i);
+                    if (skipVirtualChild(child, true)) continue;
+                } else if (mViewProvider != null) {
+                    child = getChildAt(i - mVirtualFirst);
+                } else {
+                    child = getItemView(i);
+                }
+                if (child != null && isChildVisibleIn(child, visibleBounds) && ViewCompat.getLayerType(child) == ViewCompat.LAYER_TYPE_NONE
+                        && !mLayerPromoted.contains(child) && shouldPromoteLayer(child)) {
+                    ViewCompat.setLayerType(child, ViewCompat.LAYER_TYPE_HARDWARE, null);
+                    mLayerPromoted.add(child);
+                    promoted++;
+                }
+            }
+        }
+        mLayerPromotedCount = promoted;
+        mLayerDemotedCount = demoted;
+        if ((promoted != 0 || demoted != 0) && !trace(LayoutTrace.EVENT_LAYER, LayoutTrace.PHASE_SCROLL, promoted, demoted, mLayerPromoted.size(), mMaxScrollLayers) && isDevLogAccess()) {
+            printDev("layer", String.format("promoted=%d,demoted=%d,active=%d", promoted, demoted, mLayerPromoted.size()));
+        }
+    }
+    //end:scroll layers
+
+    //start:saved state
+
+    /**
+     * first item position intersecting visible content bounds,-1 if none.
+     */
+    protected int findFirstVisiblePosition() {
+        final int[] range = new int[2];
+        if (computeVisibleRangeAt(getScrollX(), getScrollY(), range)) {
+            return range[0];
         }
-        if (isOrientationVertical()) {
-            setTouchScrollVerticalEnable(touchScrollEnable);
+        final boolean horizontal = isOrientationHorizontal();
+        final Rect visibleBounds = getVisibleContentBounds();
+        final int itemCount = getItemViewCount();
+        for (int i = 0; i < itemCount; i++) {
+            View child = getItemView(i);
+            if (horizontal ? child.getRight() > visibleBounds.left : child.getBottom() > visibleBounds.top) {
+                return i;
+            }
         }
+        return -1;
     }
 
-    public boolean isEdgeEffectEnable() {
-        return mEdgeEffectEnable;
+    /**
+     * scroll offset to show an item at start of visible content bounds,{@link Integer#MIN_VALUE} if it's unknown.
+     */
+    protected int computeItemScrollOffset(int itemPosition) {
+        if (mViewProvider != null) {
+            return itemPosition >= 0 && itemPosition < mVirtualIndex.getCount() ? computeVirtualScrollOffset(itemPosition, false) : Integer.MIN_VALUE;
+        }
+        View child = getItemView(itemPosition);
+        if (child == null) {
+            return Integer.MIN_VALUE;
+        }
+        return isOrientationHorizontal() ? offsetX(child, false, true) : offsetY(child, false, true);
     }
 
-    public void setEdgeEffectEnable(boolean enable) {
-        if (mEdgeEffectEnable != enable) {
-            mEdgeEffectEnable = enable;
-            if (!enable) {
-                invalidateGlows();
+    /**
+     * scroll to the restored anchor directly after layout,it's kept until there is any item.
+     */
+    private void restoreAnchor() {
+        final int itemCount = mViewProvider != null ? mVirtualIndex.getCount() : getItemViewCount();
+        if (itemCount <= 0) {
+            return;
+        }
+        final int itemOffset = computeItemScrollOffset(Math.min(mRestoreAnchorPosition, itemCount - 1));
+        mRestoreAnchorPosition = -1;
+        if (itemOffset != Integer.MIN_VALUE) {
+            int x = getScrollX(), y = getScrollY();
+            if (isOrientationHorizontal()) {
+                x = Math.max(0, Math.min(getHorizontalScrollRange(), itemOffset + mRestoreAnchorOffset));
+            } else {
+                y = Math.max(0, Math.min(getVerticalScrollRange(), itemOffset + mRestoreAnchorOffset));
+            }
+            if (x != getScrollX() || y != getScrollY()) {
+                scrollTo(x, y);
             }
-            invalidate();
         }
     }
 
     @Override
-    protected void onOrientationChanged(int orientation, int oldOrientation) {
-        setTouchScrollEnable(isTouchScrollEnable(false));
-        scrollTo(0, 0);
+    public Parcelable onSaveInstanceState() {
+        Parcelable superState = super.onSaveInstanceState();
+        SavedState savedState = new SavedState(superState);
+        if (mRestoreAnchorPosition >= 0) {
+            savedState.anchorPosition = mRestoreAnchorPosition;
+            savedState.anchorOffset = mRestoreAnchorOffset;
+        } else if (isAttachLayoutFinished()) {
+            int position = findFirstVisiblePosition();
+            int itemOffset = position >= 0 ? computeItemScrollOffset(position) : Integer.MIN_VALUE;
+            if (itemOffset != Integer.MIN_VALUE) {
+                savedState.anchorPosition = position;
+                savedState.anchorOffset = (isOrientationHorizontal() ? getScrollX() : getScrollY()) - itemOffset;
+            }
+        }
+        return savedState;
     }
 
     @Override
-    public void setClipToPadding(boolean clipToPadding) {
-        if (clipToPadding != getClipToPadding()) {
-            invalidateGlows();
+    public void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        mRestoreAnchorPosition = savedState.anchorPosition;
+        mRestoreAnchorOffset = savedState.anchorOffset;
+        if (mRestoreAnchorPosition >= 0 && isAttachLayoutFinished()) {
+            requestLayout();
         }
-        super.setClipToPadding(clipToPadding);
     }
 
-    protected void setScrollState(int newState) {
-        if (mScrollState != newState) {
-            int preState = mScrollState;
-            mScrollState = newState;
-            if (isDevLogAccess()) {
-                printDev("state", String.format("from %d to %d", preState, newState));
+    static class SavedState extends BaseSavedState {
+        int anchorPosition = -1;
+        int anchorOffset;
+        /**
+         * selected item of subclass such as current page,-1 if none.
+         */
+        int selectedPosition = -1;
+
+        public SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            anchorPosition = in.readInt();
+            anchorOffset = in.readInt();
+            selectedPosition = in.readInt();
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            super.writeToParcel(dest, flags);
+            dest.writeInt(anchorPosition);
+            dest.writeInt(anchorOffset);
+            dest.writeInt(selectedPosition);
+        }
+
+        public static final Creator<SavedState> CREATOR = new Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
             }
-            onScrollStateChanged(newState, preState);
-            if (mScrollListener != null) {
-                mScrollListener.onScrollStateChanged(mScrollState, preState);
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
             }
+        };
+    }
+    //end:saved state
+
+    //start:visibility events
+
+    /**
+     * report items entering and exiting visible content bounds in batch once a frame.
+     *
+     * @param threshold fraction of item area must be visible to be a visible item,0.5 by default,
+     *                  0 means any pixel visible.
+     */
+    public void setOnItemVisibilityListener(OnItemVisibilityListener l, float threshold) {
+        mVisibilityListener = l;
+        mVisibilityThreshold = Math.max(0, Math.min(1, threshold));
+        clearVisibleBits();
+        mVisibilityItemCount = 0;
+        if (l != null) {
+            scheduleVisibilityUpdate();
         }
     }
 
-    public int getScrollState() {
-        return mScrollState;
+    public OnItemVisibilityListener getItemVisibilityListener() {
+        return mVisibilityListener;
     }
 
-    public boolean isOrientationHorizontal() {
-        return orientationMatch(HORIZONTAL, false);
+    public float getVisibilityThreshold() {
+        return mVisibilityThreshold;
     }
 
-    public boolean isOrientationVertical() {
-        return orientationMatch(VERTICAL, true);
+    /**
+     * whether the item is visible as last reported.
+     *
+     * @param position position as reported to {@link OnItemVisibilityListener},see {@link #toReportedPosition(int)}
+     */
+    public boolean isItemVisible(int position) {
+        for (int i = mVisibleBitsFirst; i <= mVisibleBitsLast; i++) {
+            if ((mVisibleBits[i >> 6] & (1L << i)) != 0 && toReportedPosition(i) == position) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    public boolean orientationMatch(int orientation, boolean defaultIfUnset) {
-        int value = getOrientation();
-        if (value == 0) {
-            return defaultIfUnset;
+    /**
+     * visible items are tracked by position and kept when item count changes,which only suits items appended at the end.
+     * call this after items are inserted,removed or moved elsewhere,all items visible before are reported as exited at once
+     * and items visible after next layout are reported as entered.
+     */
+    public void notifyItemVisibilityDataChanged() {
+        if (mVisibilityListener != null) {
+            dispatchItemVisibility(true);
+            scheduleVisibilityUpdate();
         }
-        return verifyFlag(value, orientation);
     }
 
-    public void setOnScrollChangeListener(OnScrollChangeListener l) {
-        mScrollListener = l;
+    private void clearVisibleBits() {
+        for (int i = mVisibleBitsFirst >> 6, end = mVisibleBitsLast >> 6; i <= end && mVisibleBitsLast >= 0; i++) {
+            mVisibleBits[i] = 0;
+        }
+        mVisibleBitsFirst = 0;
+        mVisibleBitsLast = -1;
+    }
+
+    private void scheduleVisibilityUpdate() {
+        if (!mVisibilityScheduled && isAttachLayoutFinished()) {
+            if (mVisibilityRunnable == null) {
+                mVisibilityRunnable = new Runnable() {
+                    @Override
+                    public void run() {
+                        mVisibilityScheduled = false;
+                        dispatchItemVisibility(false);
+                    }
+                };
+            }
+            mVisibilityScheduled = true;
+            ViewCompat.postOnAnimation(this, mVisibilityRunnable);
+        }
     }
 
-    @Override
-    protected void onDetachedFromWindow() {
-        super.onDetachedFromWindow();
-        invalidateGlows();
-        mScrollInfo.setEmpty();
-        mScrollingChildHelper = null;
+    private static int[] appendItem(int[] items, int count, int itemPosition) {
+        if (count == items.length) {
+            int[] result = new int[count << 1];
+            System.arraycopy(items, 0, result, 0, count);
+            items = result;
+        }
+        items[count] = itemPosition;
+        return items;
     }
 
-    @Override
-    public void removeAllViewsInLayout() {
-        super.removeAllViewsInLayout();
-        invalidateGlows();
-        mScrollInfo.setEmpty();
-        mScrollingChildHelper = null;
+    /**
+     * visible fraction of an item reaches the threshold.
+     */
+    private boolean isItemVisibleEnough(int itemPosition, Rect visibleBounds) {
+        final View child = mViewProvider != null ? getChildAt(itemPosition - mVirtualFirst) : getItemView(itemPosition);
+        if (child == null || child.getVisibility() != View.VISIBLE) {
+            return false;
+        }
+        final int width = Math.min(child.getRight(), visibleBounds.right) - Math.max(child.getLeft(), visibleBounds.left);
+        final int height = Math.min(child.getBottom(), visibleBounds.bottom) - Math.max(child.getTop(), visibleBounds.top);
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        long area = (long) child.getWidth() * child.getHeight();
+        return (long) width * height >= mVisibilityThreshold * area;
     }
 
-    //start:measure&layout&draw
-    @Override
-    protected void dispatchMeasure(int widthMeasureSpecContent, int heightMeasureSpecContent) {
-        final int childCount = getChildCount();
-        int contentWidth = 0, contentHeight = 0, childState = 0;
-        int itemPosition = 0, itemMargin;
-        if (isOrientationHorizontal()) {
-            itemMargin = mBorderDivider.getContentMarginHorizontal();
-            widthMeasureSpecContent = MeasureSpec.makeMeasureSpec(MeasureSpec.getSize(widthMeasureSpecContent), MeasureSpec.UNSPECIFIED);
-            for (int i = 0; i < childCount; i++) {
-                final View child = getChildAt(i);
-                if (skipChild(child)) continue;
-                if (itemPosition != 0) contentWidth += itemMargin;
-                ScrollLayout.LayoutParams params = (ScrollLayout.LayoutParams) child.getLayoutParams();
-                params.measure(child, itemPosition++, widthMeasureSpecContent, heightMeasureSpecContent, 0, 0);
-                contentWidth += params.width(child);
-                int itemHeight = params.height(child);
-                if (contentHeight < itemHeight) {
-                    contentHeight = itemHeight;
+    /**
+     * diff visible items with the bitset of last frame and report the changes in batch.
+     *
+     * @param exitAll report all visible items as exited.
+     */
+    private void dispatchItemVisibility(boolean exitAll) {
+        final int itemCount = mViewProvider != null ? mVirtualIndex.getCount() : getItemViewCount();
+        mEnteredCount = mExitedCount = 0;
+        if (exitAll || itemCount != mVisibilityItemCount) {
+            //items still in range keep their bits and are diffed below,so a data change doesn't report them again.
+            final int keepCount = exitAll ? 0 : itemCount;
+            for (int i = Math.max(keepCount, mVisibleBitsFirst); i <= mVisibleBitsLast; i++) {
+                final long mask = 1L << i;
+                if ((mVisibleBits[i >> 6] & mask) != 0) {
+                    mVisibleBits[i >> 6] ^= mask;
+                    mExitedItems = appendItem(mExitedItems, mExitedCount++, i);
                 }
-                childState |= child.getMeasuredState();
             }
-        } else {
-            itemMargin = mBorderDivider.getContentMarginVertical();
-            heightMeasureSpecContent = MeasureSpec.makeMeasureSpec(MeasureSpec.getSize(heightMeasureSpecContent), MeasureSpec.UNSPECIFIED);
-            for (int i = 0; i < childCount; i++) {
-                final View child = getChildAt(i);
-                if (skipChild(child)) continue;
-                if (itemPosition != 0) contentHeight += itemMargin;
-                ScrollLayout.LayoutParams params = (ScrollLayout.LayoutParams) child.getLayoutParams();
-                params.measure(child, itemPosition++, widthMeasureSpecContent, heightMeasureSpecContent, 0, 0);
-                contentHeight += params.height(child);
-                int itemWidth = params.width(child);
-                if (contentWidth < itemWidth) {
-                    contentWidth = itemWidth;
+            if (mVisibleBitsLast >= keepCount) {
+                mVisibleBitsLast = keepCount - 1;
+                if (mVisibleBitsFirst > mVisibleBitsLast) {
+                    mVisibleBitsFirst = 0;
+                    mVisibleBitsLast = -1;
+                }
+            }
+            mVisibilityItemCount = itemCount;
+            if (mVisibleBits.length < (itemCount >> 6) + 1) {
+                mVisibleBits = Arrays.copyOf(mVisibleBits, (itemCount >> 6) + 1);
+            }
+        }
+        if (!exitAll && itemCount > 0) {
+            final int[] range = mVisibilityRange;
+            if (!computeVisibleRangeAt(getScrollX(), getScrollY(), range)) {
+                range[0] = 0;
+                range[1] = itemCount - 1;
+            }
+            final Rect visibleBounds = getVisibleContentBounds();
+            final int first = mVisibleBitsLast >= 0 ? Math.min(range[0], mVisibleBitsFirst) : range[0];
+            final int last = Math.min(itemCount - 1, Math.max(range[1], mVisibleBitsLast));
+            int visibleFirst = Integer.MAX_VALUE, visibleLast = -1;
+            for (int i = Math.max(0, first); i <= last; i++) {
+                final long mask = 1L << i;
+                boolean visible = i >= range[0] && i <= range[1] && isItemVisibleEnough(i, visibleBounds);
+                boolean wasVisible = (mVisibleBits[i >> 6] & mask) != 0;
+                if (visible) {
+                    visibleFirst = Math.min(visibleFirst, i);
+                    visibleLast = i;
+                }
+                if (visible != wasVisible) {
+                    mVisibleBits[i >> 6] ^= mask;
+                    if (visible) {
+                        mEnteredItems = appendItem(mEnteredItems, mEnteredCount++, i);
+                    } else {
+                        mExitedItems = appendItem(mExitedItems, mExitedCount++, i);
+                    }
                 }
-                childState |= child.getMeasuredState();
             }
+            mVisibleBitsFirst = visibleLast >= 0 ? visibleFirst : 0;
+            mVisibleBitsLast = visibleLast;
+        }
+        if ((mEnteredCount > 0 || mExitedCount > 0) && mVisibilityListener != null) {
+            toReportedItems();
+            mVisibilityListener.onItemVisibilityChanged(mEnteredItems, mEnteredCount, mExitedItems, mExitedCount);
         }
-        setContentSize(contentWidth, contentHeight, childState);
     }
 
-    @Override
-    protected void dispatchLayout(int contentLeft, int contentTop) {
-        final int count = getChildCount();
-        int childLeft = contentLeft, childTop = contentTop, childRight, childBottom, itemMargin;
-        if (isOrientationHorizontal()) {
-            itemMargin = mBorderDivider.getContentMarginHorizontal();
-            final int baseTop = contentTop, baseBottom = contentTop + getContentPureHeight();
-            for (int i = 0; i < count; i++) {
-                final View child = getChildAt(i);
-                if (skipChild(child)) continue;
-                ScrollLayout.LayoutParams params = (ScrollLayout.LayoutParams) child.getLayoutParams();
-                childTop = getContentStartH(baseTop, baseBottom, child.getMeasuredHeight(), params.topMargin(), params.bottomMargin(), params.gravity);
-                childBottom = childTop + child.getMeasuredHeight();
-                childLeft += params.leftMargin();
-                childRight = childLeft + child.getMeasuredWidth();
-                child.layout(childLeft, childTop, childRight, childBottom);
-                childLeft = childRight + params.rightMargin + itemMargin;
+    /**
+     * map entered and exited items to reported positions,a position both exited and entered in the same batch
+     * such as a repeated item replaced by its copy is dropped from both.
+     */
+    private void toReportedItems() {
+        for (int i = 0; i < mEnteredCount; i++) {
+            mEnteredItems[i] = toReportedPosition(mEnteredItems[i]);
+        }
+        for (int i = 0; i < mExitedCount; i++) {
+            mExitedItems[i] = toReportedPosition(mExitedItems[i]);
+        }
+        for (int i = mExitedCount - 1; i >= 0; i--) {
+            for (int k = mEnteredCount - 1; k >= 0; k--) {
+                if (mExitedItems[i] == mEnteredItems[k]) {
+                    mEnteredItems[k] = mEnteredItems[--mEnteredCount];
+                    mExitedItems[i] = mExitedItems[--mExitedCount];
+                    break;
+                }
             }
-        } else {
-            itemMargin = mBorderDivider.getContentMarginVertical();
-            final int baseLeft = contentLeft, baseRight = contentLeft + getContentPureWidth();
-            for (int i = 0; i < count; i++) {
-                final View child = getChildAt(i);
-                if (skipChild(child)) continue;
-                ScrollLayout.LayoutParams params = (ScrollLayout.LayoutParams) child.getLayoutParams();
-                childTop += params.topMargin();
-                childBottom = childTop + child.getMeasuredHeight();
-                childLeft = getContentStartH(baseLeft, baseRight, child.getMeasuredWidth(), params.leftMargin(), params.rightMargin(), params.gravity);
-                childRight = childLeft + child.getMeasuredWidth();
-                child.layout(childLeft, childTop, childRight, childBottom);
-                childTop = childBottom + params.bottomMargin() + itemMargin;
+        }
+    }
+    //end:visibility events
+
+    //start:touch resample
+
+    /**
+     * resample touch moves to frame time and scroll once a frame while dragging,
+     * it makes dragging smooth when display refreshes faster than touch is sampled.
+     */
+    public void setTouchResampleEnable(boolean enable) {
+        if (mTouchResampleEnable != enable) {
+            if (!enable) {
+                flushResampledTouch();
             }
+            mTouchResampleEnable = enable;
         }
     }
 
-    protected void doAfterLayout(boolean firstAttachLayout) {
-        if (0x80000000 == (0x80000000 & mScrollInfo.left)) {
-            scrollToItem(mScrollInfo, true);
+    public boolean isTouchResampleEnable() {
+        return mTouchResampleEnable;
+    }
+
+    /**
+     * add historical and current positions of the pointer,scroll is applied by the next frame.
+     */
+    private void addTouchSamples(MotionEvent e, int pointerIndex) {
+        final int historySize = e.getHistorySize();
+        for (int h = 0; h < historySize; h++) {
+            mTouchResampler.addSample(e.getHistoricalEventTime(h), e.getHistoricalX(pointerIndex, h), e.getHistoricalY(pointerIndex, h));
         }
+        mTouchResampler.addSample(e.getEventTime(), e.getX(pointerIndex), e.getY(pointerIndex));
+        scheduleResampledTouch();
     }
 
-    @Override
-    protected void doAfterDraw(Canvas c, Rect inset) {
-        if (mEdgeEffectEnable) {
-            // TODO If padding is not 0 and clipChildrenToPadding is false, to draw glows properly, we
-            // need find children closest to edges. Not sure if it is worth the effort.
-            boolean clipToPadding = getClipToPadding();
-            boolean needsInvalidate = false;
-            if (mLeftGlow != null && !mLeftGlow.isFinished()) {
-                final int restore = c.save();
-                final int padding = clipToPadding ? getPaddingBottom() : 0;
-                c.rotate(270);
-                c.translate(-getHeight() + padding, 0);
-                needsInvalidate = mLeftGlow != null && mLeftGlow.draw(c);
-                c.restoreToCount(restore);
-            }
-            if (mTopGlow != null && !mTopGlow.isFinished()) {
-                final int restore = c.save();
-                if (clipToPadding) {
-                    c.translate(getPaddingLeft(), getPaddingTop());
+    /**
+     * resample at vsync time of the next frame,it's the frameTimeNanos of {@link Choreographer} since {@link Build.VERSION_CODES#JELLY_BEAN},
+     * older versions have no vsync time and use {@link AnimationUtils#currentAnimationTimeMillis()} when the frame runs.
+     */
+    private void scheduleResampledTouch() {
+        if (!mResampleScheduled) {
+            mResampleScheduled = true;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                if (mResampleFrameCallback == null) {
+                    mResampleFrameCallback = new Choreographer.FrameCallback() {
+                        @Override
+                        public void doFrame(long frameTimeNanos) {
+                            //same clock as MotionEvent.getEventTime().
+                            onResampleFrame(frameTimeNanos / 1000000);
+                        }
+                    };
                 }
-                needsInvalidate |= mTopGlow != null && mTopGlow.draw(c);
-                c.restoreToCount(restore);
-            }
-            if (mRightGlow != null && !mRightGlow.isFinished()) {
-                final int restore = c.save();
-                final int width = getWidth();
-                final int padding = clipToPadding ? getPaddingTop() : 0;
-                c.rotate(90);
-                c.translate(-padding, -width - getScrollX());
-                needsInvalidate |= mRightGlow != null && mRightGlow.draw(c);
-                c.restoreToCount(restore);
-            }
-            if (mBottomGlow != null && !mBottomGlow.isFinished()) {
-                final int restore = c.save();
-                c.rotate(180);
-                if (clipToPadding) {
-                    c.translate(-getWidth() + getPaddingRight(), -getHeight() + getPaddingBottom() - getScrollY());
-                } else {
-                    c.translate(-getWidth(), -getHeight());
+                Choreographer.getInstance().postFrameCallback(mResampleFrameCallback);
+            } else {
+                if (mResampleRunnable == null) {
+                    mResampleRunnable = new Runnable() {
+                        @Override
+                        public void run() {
+                            onResampleFrame(AnimationUtils.currentAnimationTimeMillis());
+                        }
+                    };
                 }
-                needsInvalidate |= mBottomGlow != null && mBottomGlow.draw(c);
-                c.restoreToCount(restore);
+                ViewCompat.postOnAnimation(this, mResampleRunnable);
             }
-            if (needsInvalidate) {
-                ViewCompat.postInvalidateOnAnimation(this);
+        }
+    }
+
+    private void onResampleFrame(long frameTime) {
+        mResampleScheduled = false;
+        applyResampledTouch(frameTime);
+        if (mScrollState == SCROLL_STATE_DRAGGING && mTouchResampler.isBehind(frameTime)) {
+            scheduleResampledTouch();
+        }
+    }
+
+    private void cancelResampledTouch() {
+        if (mResampleScheduled) {
+            mResampleScheduled = false;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                Choreographer.getInstance().removeFrameCallback(mResampleFrameCallback);
+            } else {
+                removeCallbacks(mResampleRunnable);
             }
         }
+        mTouchResampler.reset();
     }
-    //end:measure&layout&draw
+
+    /**
+     * scroll to the newest sample at once,so no distance is lost before fling or pointer changes.
+     */
+    private void flushResampledTouch() {
+        if (mTouchResampler.getSampleCount() > 0) {
+            applyResampledTouch(mTouchResampler.getNewestTime() + TouchResampler.RESAMPLE_LATENCY);
+        }
+        cancelResampledTouch();
+    }
+
+    private void applyResampledTouch(long frameTime) {
+        if (mScrollState != SCROLL_STATE_DRAGGING || !mTouchResampler.resample(frameTime, mResampledTouch)) {
+            return;
+        }
+        final float touchX = mResampledTouch[0], touchY = mResampledTouch[1];
+        final int x = (int) (touchX + 0.5f), y = (int) (touchY + 0.5f);
+        int dx = mLastTouchX - x, dy = mLastTouchY - y;
+        if (dx == 0 && dy == 0) {
+            return;
+        }
+        final int nestedOffsetX = mNestedOffsets[0], nestedOffsetY = mNestedOffsets[1];
+        if (mNestedScrollAccepted && dispatchNestedPreScroll(dx, dy, mScrollConsumed, mScrollOffset)) {
+            dx -= mScrollConsumed[0];
+            dy -= mScrollConsumed[1];
+            mNestedOffsets[0] += mScrollOffset[0];
+            mNestedOffsets[1] += mScrollOffset[1];
+        }
+        mLastTouchX = x - mScrollOffset[0];
+        mLastTouchY = y - mScrollOffset[1];
+        if (scrollByInternal(mCanTouchScroll[0] ? dx : 0, mCanTouchScroll[1] ? dy : 0, true, touchX, touchY)) {
+            getParent().requestDisallowInterceptTouchEvent(true);
+        }
+        if (nestedOffsetX != mNestedOffsets[0] || nestedOffsetY != mNestedOffsets[1]) {
+            mTouchResampler.offsetSamples(nestedOffsetX - mNestedOffsets[0], nestedOffsetY - mNestedOffsets[1]);
+        }
+    }
+    //end:touch resample
 
     //start: touch gesture
 
@@ -381,6 +1795,7 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
                     setScrollState(SCROLL_STATE_DRAGGING);
                 }
                 mNestedOffsets[0] = mNestedOffsets[1] = 0;
+                mScrollOffset[0] = mScrollOffset[1] = 0;
                 int nestedScrollAxis = ViewCompat.SCROLL_AXIS_NONE;
                 if (mCanTouchScroll[0]) {
                     nestedScrollAxis |= ViewCompat.SCROLL_AXIS_HORIZONTAL;
@@ -454,11 +1869,11 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
             mVelocityTracker = VelocityTracker.obtain();
         }
         boolean eventAddedToVelocityTracker = false;
-        final MotionEvent vtev = MotionEvent.obtain(e);
         final int action = MotionEventCompat.getActionMasked(e);
         final int actionIndex = MotionEventCompat.getActionIndex(e);
         if (action == MotionEvent.ACTION_DOWN) {
             mNestedOffsets[0] = mNestedOffsets[1] = 0;
+            mScrollOffset[0] = mScrollOffset[1] = 0;
             mCanTouchScroll[0] = isTouchScrollHorizontalEnable(true);
             mCanTouchScroll[1] = isTouchScrollVerticalEnable(true);
             mScrollPointerId = e.getPointerId(0);
@@ -473,9 +1888,9 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
             }
             startNestedScroll(nestedScrollAxis);
         }
-        vtev.offsetLocation(mNestedOffsets[0], mNestedOffsets[1]);
         switch (action) {
             case MotionEventCompat.ACTION_POINTER_DOWN: {
+                flushResampledTouch();
                 mScrollPointerId = e.getPointerId(actionIndex);
                 mInitialTouchX = mLastTouchX = (int) (e.getX(actionIndex) + 0.5f);
                 mInitialTouchY = mLastTouchY = (int) (e.getY(actionIndex) + 0.5f);
@@ -489,14 +1904,17 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
                     }
                     return false;
                 }
+                if (mTouchResampleEnable && mScrollState == SCROLL_STATE_DRAGGING) {
+                    addTouchSamples(e, index);
+                    break;
+                }
                 final int x = (int) (e.getX(index) + 0.5f);
                 final int y = (int) (e.getY(index) + 0.5f);
                 int dx = mLastTouchX - x;
                 int dy = mLastTouchY - y;
-                if (dispatchNestedPreScroll(dx, dy, mScrollConsumed, mScrollOffset)) {
+                if (mNestedScrollAccepted && dispatchNestedPreScroll(dx, dy, mScrollConsumed, mScrollOffset)) {
                     dx -= mScrollConsumed[0];
                     dy -= mScrollConsumed[1];
-                    vtev.offsetLocation(mScrollOffset[0], mScrollOffset[1]);
                     mNestedOffsets[0] += mScrollOffset[0];
                     mNestedOffsets[1] += mScrollOffset[1];
                 }
@@ -529,9 +1947,13 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
                     if (scrollByInternal(
                             mCanTouchScroll[0] ? dx : 0,
                             mCanTouchScroll[1] ? dy : 0,
-                            vtev)) {
+                            true, e.getX(), e.getY())) {
                         getParent().requestDisallowInterceptTouchEvent(true);
                     }
+                    if (mTouchResampleEnable) {
+                        mTouchResampler.reset();
+                        mTouchResampler.addSample(e.getEventTime(), mLastTouchX, mLastTouchY);
+                    }
                 }
             }
             break;
@@ -540,7 +1962,8 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
             }
             break;
             case MotionEvent.ACTION_UP: {
-                mVelocityTracker.addMovement(vtev);
+                flushResampledTouch();
+                addVelocityMovement(e);
                 eventAddedToVelocityTracker = true;
                 mVelocityTracker.computeCurrentVelocity(1000, mMaxFlingVelocity);
                 final float xvel = mCanTouchScroll[0] ?
@@ -559,15 +1982,30 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
             break;
         }
         if (!eventAddedToVelocityTracker) {
-            mVelocityTracker.addMovement(vtev);
+            addVelocityMovement(e);
         }
-        vtev.recycle();
         return true;
     }
 
+    /**
+     * track the event in window coordinate by nested offsets,the event is offset in place and restored
+     * instead of a copy per event.
+     */
+    private void addVelocityMovement(MotionEvent e) {
+        final int offsetX = mNestedOffsets[0], offsetY = mNestedOffsets[1];
+        if (offsetX == 0 && offsetY == 0) {
+            mVelocityTracker.addMovement(e);
+        } else {
+            e.offsetLocation(offsetX, offsetY);
+            mVelocityTracker.addMovement(e);
+            e.offsetLocation(-offsetX, -offsetY);
+        }
+    }
+
     private void onPointerUp(MotionEvent e) {
         final int actionIndex = MotionEventCompat.getActionIndex(e);
         if (e.getPointerId(actionIndex) == mScrollPointerId) {
+            flushResampledTouch();
             // Pick a new pointer to pick up the slack.
             final int newIndex = actionIndex == 0 ? 1 : 0;
             mScrollPointerId = e.getPointerId(newIndex);
@@ -587,6 +2025,7 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
         if (mVelocityTracker != null) {
             mVelocityTracker.clear();
         }
+        cancelResampledTouch();
         stopNestedScroll();
         releaseGlows();
     }
@@ -599,6 +2038,18 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
         return DefaultInterpolator;
     }
 
+    /**
+     * physics of fling,it's {@link FlingPhysics.Spline} of current density by default.
+     * the new physics applies from next fling.
+     */
+    public void setFlingPhysics(FlingPhysics physics) {
+        mFlingScroller.mScroller.setPhysics(physics == null ? FlingPhysics.Spline.obtain(getContext()) : physics);
+    }
+
+    public FlingPhysics getFlingPhysics() {
+        return mFlingScroller.mScroller.getPhysics();
+    }
+
     protected boolean awakenScrollBarsIfNeed() {
         boolean awaken = false;
         boolean horizontal = isHorizontalScrollBarEnabled() && isTouchScrollHorizontalEnable(true);
@@ -615,10 +2066,10 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
      *
      * @param x  The amount of horizontal scroll request
      * @param y  The amount of vertical scroll request
-     * @param ev The originating MotionEvent, or null if not from a touch event.
+     * @param fromTouch whether it's from a touch event,touchX and touchY are ignored if not.
      * @return Whether any scroll was consumed in either direction.
      */
-    boolean scrollByInternal(int x, int y, MotionEvent ev) {
+    boolean scrollByInternal(int x, int y, boolean fromTouch, float touchX, float touchY) {
         int unconsumedX = 0, unconsumedY = 0;
         int consumedX = 0, consumedY = 0;
         if (x != 0) {
@@ -632,17 +2083,14 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
         if (consumedX != 0 || consumedY != 0) {
             scrollBy(consumedX, consumedY);
         }
-        if (dispatchNestedScroll(consumedX, consumedY, unconsumedX, unconsumedY, mScrollOffset)) {
+        if (mNestedScrollAccepted && dispatchNestedScroll(consumedX, consumedY, unconsumedX, unconsumedY, mScrollOffset)) {
             mLastTouchX -= mScrollOffset[0];
             mLastTouchY -= mScrollOffset[1];
-            if (ev != null) {
-                ev.offsetLocation(mScrollOffset[0], mScrollOffset[1]);
-            }
             mNestedOffsets[0] += mScrollOffset[0];
             mNestedOffsets[1] += mScrollOffset[1];
         } else if (getOverScrollMode() != View.OVER_SCROLL_NEVER) {
-            if (ev != null) {
-                pullGlows(ev.getX(), unconsumedX, ev.getY(), unconsumedY);
+            if (fromTouch) {
+                pullGlows(touchX + mNestedOffsets[0], unconsumedX, touchY + mNestedOffsets[1], unconsumedY);
             }
             considerReleasingGlowsOnScroll(x, y);
         }
@@ -673,13 +2121,15 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
             if (!canScrollVertical || Math.abs(velocityY) < mMinFlingVelocity) {
                 velocityY = 0;
             }
-            if ((velocityX != 0 || velocityY != 0) && !dispatchNestedPreFling(velocityX, velocityY)) {
+            if ((velocityX != 0 || velocityY != 0) && !(mNestedScrollAccepted && dispatchNestedPreFling(velocityX, velocityY))) {
                 final boolean canScroll = canScrollHorizontal || canScrollVertical;
-                dispatchNestedFling(velocityX, velocityY, canScroll);
+                if (mNestedScrollAccepted) {
+                    dispatchNestedFling(velocityX, velocityY, canScroll);
+                }
                 if (canScroll) {
                     velocityX = Math.max(-mMaxFlingVelocity, Math.min(velocityX, mMaxFlingVelocity));
                     velocityY = Math.max(-mMaxFlingVelocity, Math.min(velocityY, mMaxFlingVelocity));
-                    if (isDevLogAccess()) {
+                    if (!trace(LayoutTrace.EVENT_FLING, LayoutTrace.PHASE_TOUCH, velocityX, velocityY, getScrollX(), getScrollY()) && isDevLogAccess()) {
                         printDev("fling", String.format("velocityX=%d,velocityY=%d,scrollX,scrollY=%d,rangeX=%d,rangeY=%d", velocityX, velocityY, getScrollX(), getScrollY(), getHorizontalScrollRange(), getVerticalScrollRange()));
                     }
                     mFlingScroller.fling(velocityX, velocityY);
@@ -701,6 +2151,13 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
     protected void onScrollStateChanged(int newState, int prevState) {
     }
 
+    /**
+     * duration of a settle by (dx,dy) that keeps pace with a release velocity in pixels per second.
+     */
+    protected int computeSettleDuration(int dx, int dy, int velocityX, int velocityY) {
+        return mFlingScroller.computeScrollDuration(dx, dy, velocityX, velocityY);
+    }
+
     public void scrollTo(int x, int y, int duration) {
         scrollTo(x, y, duration, getDefaultInterpolator());
     }
@@ -741,7 +2198,7 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
         mScrollInfo.right = ((okX ? 1 : 0) << 31) | ((x < 0 ? 1 : 0) << 30) | ((x < 0 ? -x : x) & 0x3FFFFFFF);
         mScrollInfo.bottom = ((okY ? 1 : 0) << 31) | ((y < 0 ? 1 : 0) << 30) | ((y < 0 ? -y : y) & 0x3FFFFFFF);
         if (isAttachLayoutFinished()) {
-            View child =index>=0? getItemView(index):null;
+            View child = index >= 0 && mViewProvider == null ? getItemView(index) : null;
             if(!(child!=null&&child.isLayoutRequested()&&isLayoutRequested())){
                 scrollToItem(mScrollInfo, false);
             }
@@ -756,6 +2213,20 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
             int offsetY = (mScrollInfo.bottom & 0x3FFFFFFF) * (0x40000000 == (0x40000000 & mScrollInfo.bottom) ? -1 : 1);
             if (index < 0) {
                 scrollTo(offsetX, offsetY, duration, mInterpolator);
+            } else if (mViewProvider != null) {
+                if (index < mVirtualIndex.getCount()) {
+                    boolean horizontal = isOrientationHorizontal();
+                    boolean centerInParent = 0x80000000 == (0x80000000 & mScrollInfo.top);
+                    int scrolled = computeVirtualScrollOffset(index, centerInParent);
+                    int x = getScrollX(), y = getScrollY();
+                    if (horizontal && 0x80000000 == (0x80000000 & mScrollInfo.right)) {
+                        x = scrolled + offsetX;
+                    }
+                    if (!horizontal && 0x80000000 == (0x80000000 & mScrollInfo.bottom)) {
+                        y = scrolled + offsetY;
+                    }
+                    scrollTo(x, y, duration, mInterpolator);
+                }
             } else {
                 View child = getItemView(index);
                 if (child != null) {
@@ -942,11 +2413,12 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
 
     @Override
     public boolean startNestedScroll(int axes) {
-        return getScrollingChildHelper().startNestedScroll(axes);
+        return mNestedScrollAccepted = getScrollingChildHelper().startNestedScroll(axes);
     }
 
     @Override
     public void stopNestedScroll() {
+        mNestedScrollAccepted = false;
         getScrollingChildHelper().stopNestedScroll();
     }
 
@@ -1011,15 +2483,14 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
     class FlingScroller implements Runnable {
         private int mLastFlingX;
         private int mLastFlingY;
-        private ScrollerCompat mScroller;
-        Interpolator mInterpolator = getDefaultInterpolator();
+        private final PhysicsScroller mScroller;
         // When set to true, postOnAnimation callbacks are delayed until the run method completes
         private boolean mEatRunOnAnimationRequest = false;
         // Tracks if postAnimationCallback should be re-attached when it is done
         private boolean mReSchedulePostAnimationCallback = false;
 
         public FlingScroller() {
-            mScroller = ScrollerCompat.create(getContext(), getDefaultInterpolator());
+            mScroller = new PhysicsScroller(FlingPhysics.Spline.obtain(getContext()), getDefaultInterpolator());
         }
 
         @Override
@@ -1027,7 +2498,7 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
             disableRunOnAnimationRequests();
             // keep a local reference so that if it is changed during onAnimation method, it won't
             // cause unexpected behaviors
-            final ScrollerCompat scroller = mScroller;
+            final PhysicsScroller scroller = mScroller;
             if (scroller.computeScrollOffset()) {
                 final int x = scroller.getCurrX();
                 final int y = scroller.getCurrY();
@@ -1113,16 +2584,13 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
         public void fling(int velocityX, int velocityY) {
             setScrollState(SCROLL_STATE_SETTLING);
             mLastFlingX = mLastFlingY = 0;
-            mScroller.fling(0, 0, velocityX, velocityY,
-                    Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            mScroller.fling(0, 0, velocityX, velocityY);
+            onSettleTargetChanged(getScrollX() + mScroller.getFinalX(), getScrollY() + mScroller.getFinalY());
             postOnAnimation();
         }
 
         public void fling(int velocityX, int velocityY, Interpolator interpolator) {
-            if (mInterpolator != interpolator) {
-                mInterpolator = interpolator;
-                mScroller = ScrollerCompat.create(getContext(), interpolator);
-            }
+            mScroller.setInterpolator(interpolator);
             fling(velocityX, velocityY);
         }
 
@@ -1134,12 +2602,6 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
             smoothScrollBy(dx, dy, computeScrollDuration(dx, dy, vx, vy));
         }
 
-        private float distanceInfluenceForSnapDuration(float f) {
-            f -= 0.5f; // center the values about 0.
-            f *= 0.3f * Math.PI / 2.0f;
-            return (float) Math.sin(f);
-        }
-
         private int computeScrollDuration(int dx, int dy, int vx, int vy) {
             final int absDx = Math.abs(dx);
             final int absDy = Math.abs(dy);
@@ -1150,7 +2612,7 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
             final int halfContainerSize = containerSize / 2;
             final float distanceRatio = Math.min(1.f, 1.f * delta / containerSize);
             final float distance = halfContainerSize + halfContainerSize *
-                    distanceInfluenceForSnapDuration(distanceRatio);
+                    PhysicsScroller.snapDistanceInfluence(distanceRatio);
 
             final int duration;
             if (velocity > 0) {
@@ -1172,13 +2634,11 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
         }
 
         public void smoothScrollBy(int dx, int dy, int duration, Interpolator interpolator) {
-            if (mInterpolator != interpolator) {
-                mInterpolator = interpolator;
-                mScroller = ScrollerCompat.create(getContext(), interpolator);
-            }
+            mScroller.setInterpolator(interpolator);
             setScrollState(SCROLL_STATE_SETTLING);
             mLastFlingX = mLastFlingY = 0;
             mScroller.startScroll(0, 0, dx, dy, duration);
+            onSettleTargetChanged(getScrollX() + dx, getScrollY() + dy);
             postOnAnimation();
         }
 
@@ -1193,4 +2653,27 @@ public class ScrollLayout extends BaseViewGroup implements ScrollingView, Nested
 
         void onScrollStateChanged(int state, int oldState);
     }
+
+    public interface OnItemVisibilityListener {
+        /**
+         * items entered or exited visible content bounds since last frame,the arrays are reused and only valid in this call.
+         *
+         * @param entered      item positions becoming visible in [0,enteredCount),see {@link ScrollLayout#toReportedPosition(int)}
+         * @param exited       item positions becoming invisible in [0,exitedCount)
+         * @see ScrollLayout#notifyItemVisibilityDataChanged()
+         */
+        void onItemVisibilityChanged(int[] entered, int enteredCount, int[] exited, int exitedCount);
+    }
+
+    public interface OnFlingPredictionListener {
+        /**
+         * a fling or settle started or re-targeted.
+         *
+         * @param finalScrollX  predicted scrollX where it stops
+         * @param finalScrollY  predicted scrollY where it stops
+         * @param firstPosition first item position visible there,-1 if unknown
+         * @param lastPosition  last item position visible there,-1 if unknown
+         */
+        void onFlingPredicted(int finalScrollX, int finalScrollY, int firstPosition, int lastPosition);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.rexy.widgets.layout;
+
+/**
+ * resample touch positions of one pointer to a frame time,
+ * so content dragged at display refresh rate moves smoothly with a slower touch sampling rate.
+ * <p>
+ * the position is interpolated between the two samples around the sample time,which is frame time minus {@link #RESAMPLE_LATENCY},
+ * or extrapolated from the newest two samples by at most half of their interval and {@link #RESAMPLE_MAX_PREDICTION}.
+ * samples are kept in a small ring,nothing is allocated after construction.
+ * </p>
+ *
+ * @author: rexy
+ * @see ScrollLayout#setTouchResampleEnable(boolean)
+ */
+public class TouchResampler {
+    /**
+     * latency in milliseconds subtracted from frame time,touch samples are mostly older than the frame.
+     */
+    public static final int RESAMPLE_LATENCY = 5;
+    /**
+     * max milliseconds to predict ahead of the newest sample.
+     */
+    public static final int RESAMPLE_MAX_PREDICTION = 8;
+    /**
+     * min interval in milliseconds of two samples used to extrapolate.
+     */
+    private static final int RESAMPLE_MIN_DELTA = 2;
+    private static final int SAMPLE_SIZE = 8;
+
+    private final long[] mTime = new long[SAMPLE_SIZE];
+    private final float[] mX = new float[SAMPLE_SIZE];
+    private final float[] mY = new float[SAMPLE_SIZE];
+    private int mHead = 0;
+    private int mCount = 0;
+
+    public void reset() {
+        mHead = mCount = 0;
+    }
+
+    public int getSampleCount() {
+        return mCount;
+    }
+
+    /**
+     * add a sample,it's ignored if it's older than the newest one.
+     */
+    public void addSample(long eventTime, float x, float y) {
+        if (mCount > 0 && eventTime < mTime[index(0)]) {
+            return;
+        }
+        mTime[mHead] = eventTime;
+        mX[mHead] = x;
+        mY[mHead] = y;
+        mHead = (mHead + 1) % SAMPLE_SIZE;
+        mCount = Math.min(mCount + 1, SAMPLE_SIZE);
+    }
+
+    /**
+     * shift all samples,used when the coordinate of the view moved such as by a nested parent.
+     */
+    public void offsetSamples(float dx, float dy) {
+        for (int i = 0; i < mCount; i++) {
+            mX[i] += dx;
+            mY[i] += dy;
+        }
+    }
+
+    public long getNewestTime() {
+        return mCount == 0 ? 0 : mTime[index(0)];
+    }
+
+    public float getNewestX() {
+        return mCount == 0 ? 0 : mX[index(0)];
+    }
+
+    public float getNewestY() {
+        return mCount == 0 ? 0 : mY[index(0)];
+    }
+
+    /**
+     * ring index of the k-th newest sample.
+     */
+    private int index(int k) {
+        return (mHead - 1 - k + SAMPLE_SIZE) % SAMPLE_SIZE;
+    }
+
+    /**
+     * resample position at frame time.
+     *
+     * @param out x and y resampled.
+     * @return false if there is no sample.
+     */
+    public boolean resample(long frameTime, float[] out) {
+        if (mCount == 0) {
+            return false;
+        }
+        final long sampleTime = frameTime - RESAMPLE_LATENCY;
+        final int newest = index(0);
+        if (sampleTime >= mTime[newest]) {
+            out[0] = mX[newest];
+            out[1] = mY[newest];
+            if (mCount > 1) {
+                final int older = index(1);
+                final long delta = mTime[newest] - mTime[older];
+                if (delta >= RESAMPLE_MIN_DELTA) {
+                    final long predict = Math.min(sampleTime - mTime[newest], Math.min(delta / 2, RESAMPLE_MAX_PREDICTION));
+                    final float alpha = predict / (float) delta;
+                    out[0] += (mX[newest] - mX[older]) * alpha;
+                    out[1] += (mY[newest] - mY[older]) * alpha;
+                }
+            }
+            return true;
+        }
+        for (int k = 1; k < mCount; k++) {
+            final int before = index(k);
+            if (mTime[before] <= sampleTime) {
+                final int after = index(k - 1);
+                final float alpha = (sampleTime - mTime[before]) / (float) (mTime[after] - mTime[before]);
+                out[0] = mX[before] + (mX[after] - mX[before]) * alpha;
+                out[1] = mY[before] + (mY[after] - mY[before]) * alpha;
+                return true;
+            }
+        }
+        final int oldest = index(mCount - 1);
+        out[0] = mX[oldest];
+        out[1] = mY[oldest];
+        return true;
+    }
+
+    /**
+     * whether a frame at this time still lags behind the newest sample,so another frame is needed to catch up.
+     */
+    public boolean isBehind(long frameTime) {
+        return mCount > 0 && frameTime - RESAMPLE_LATENCY < mTime[index(0)];
+    }
+}
@@ -331,6 +331,14 @@ public class WrapLayout extends BaseViewGroup {
             for (; lineIndex < lineCount; lineIndex++) {
                 int lineEndIndex = mLineEndIndex.get(lineIndex);
                 lineBottom = lineTop + mLineHeight.get(lineIndex);
+                if (isDrawCulled(parentLeft, lineTop, parentRight, lineBottom + Math.max(middleMarginVertical, 0))) {
+                    childIndex = lineEndIndex + 1;
+                    lineTop = lineBottom;
+                    if (middleMarginVertical > 0) {
+                        lineTop += middleMarginVertical;
+                    }
+                    continue;
+                }
                 if (dividerHorizontal && lineIndex != lineCount - 1) {
                     mBorderDivider.drawDividerH(canvas, parentLeft, parentRight, lineBottom + (middleMarginVertical > 0 ? middleMarginVertical / 2 : 0));
                 }